@@ -0,0 +1,77 @@
+package jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * BenchmarkDatabase class
+ * Embedded H2 database in MySQL mode holding one synthetic table per benchmark. the table has an id primary key and
+ * width - 1 more columns cycling through text, integer, decimal and timestamp, so every kind of search predicate is
+ * generated. text cells are "word" followed by id % 1000, so a term like word42 matches about 1% of the rows.
+ *
+ * @author Juan Ni
+ *
+ */
+final class BenchmarkDatabase {
+    static final String TABLE = "bench";
+    static final String USER = "sa";
+    static final String PASS = "";
+
+    private static final String[] TYPES = { "varchar(45)", "int", "decimal(10, 2)", "timestamp" };
+    //X is the column of system_range, quoted because the database lower cases unquoted names
+    private static final String[] VALUES = { "'word' || mod(\"X\", 1000)", "mod(\"X\", 5000)", "\"X\" / 100.0",
+            "dateadd(minute, \"X\", timestamp '2021-01-01 00:00:00')" };
+
+    private final String url;
+    //keeps the in memory database alive between the connections of the model
+    private final Connection keepAlive;
+
+    private BenchmarkDatabase(String url, Connection keepAlive) {
+        this.url = url;
+        this.keepAlive = keepAlive;
+    }
+
+    //a new database with the table filled, the name keeps the databases of different parameters apart
+    static BenchmarkDatabase create(String name, int width, int rows) throws SQLException {
+        if (width < 1 || rows < 0) {
+            throw new IllegalArgumentException("width=" + width + ", rows=" + rows + " are not valid");
+        }
+        String url = "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        Connection connection = DriverManager.getConnection(url, USER, PASS);
+        try (Statement statement = connection.createStatement()) {
+            StringBuilder create = new StringBuilder("create table ").append(TABLE).append("(id bigint primary key");
+            StringBuilder insert = new StringBuilder("insert into ").append(TABLE).append(" select \"X\"");
+            for (int col = 1; col < width; col++) {
+                int kind = (col - 1) % TYPES.length;
+                create.append(", c").append(col).append(' ').append(TYPES[kind]);
+                insert.append(", ").append(VALUES[kind]);
+            }
+            statement.execute(create.append(')').toString());
+            statement.execute(insert.append(" from system_range(1, ").append(rows).append(')').toString());
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new BenchmarkDatabase(url, connection);
+    }
+
+    //a model connected to the database with its result cache turned off, so every search reads the table
+    JDBCModel connect() throws SQLException {
+        JDBCModel model = new JDBCModel();
+        model.setCredential(USER, PASS);
+        model.getResultCache().setLimits(0, 0);
+        model.connectTo(url);
+        return model;
+    }
+
+    String getURL() {
+        return url;
+    }
+
+    //drops the database
+    void close() throws SQLException {
+        keepAlive.close();
+    }
+}
@@ -0,0 +1,42 @@
+package jdbc;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain class
+ * Entry point of benchmarks.jar. takes the usual JMH command line options and always adds the GC profiler, so the
+ * allocation rate per operation is reported next to throughput and average time. {@link MySQLProfileBenchmark}
+ * needs a MySQL server and is left out of a run of every benchmark unless
+ * -Ddbreader.mysql.host is given.
+ *
+ * @author Juan Ni
+ *
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine).addProfiler(GCProfiler.class);
+        //asked for by name it runs and its setup tells what is missing
+        if (commandLine.getIncludes().isEmpty() && System.getProperty(MySQLProfileBenchmark.HOST_PROPERTY) == null) {
+            options.exclude(MySQLProfileBenchmark.class.getSimpleName());
+        }
+        new Runner(options.build()).run();
+    }
+}
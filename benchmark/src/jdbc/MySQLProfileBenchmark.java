@@ -0,0 +1,168 @@
+package jdbc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jdbc.builder.MySQLProfile;
+import jdbc.builder.MySQLURLBuilder;
+import jdbc.builder.Workload;
+import jdbc.export.ExportFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MySQLProfileBenchmark class
+ * The same searches, page, export and batch of edits against a MySQL server with every {@link MySQLProfile} and
+ * with none, so the profiles can be compared on each kind of work. the profile is used for every workload, so the
+ * model keeps a single pool. it needs a server and only runs when -Ddbreader.mysql.host is given, along with
+ * dbreader.mysql.port, dbreader.mysql.catalog, dbreader.mysql.user and dbreader.mysql.pass when the defaults do not
+ * fit. the catalog must exist, the table profile_bench is created in it.
+ * no measured results of it are recorded yet.
+ *
+ * @author Juan Ni
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MySQLProfileBenchmark {
+    static final String HOST_PROPERTY = "dbreader.mysql.host";
+    private static final String TABLE = "profile_bench";
+    private static final int EDITS = 1000;
+    private static final int PAGE_SIZE = 100;
+    private static final String NO_PROFILE = "none";
+
+    @Param({ NO_PROFILE, "low-latency interactive", "bulk export", "bulk edit" })
+    public String profile;
+
+    @Param({ "100000" })
+    public int rows;
+
+    private JDBCModel model;
+    private Path exportFile;
+    private int editRound;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        String host = System.getProperty(HOST_PROPERTY);
+        if (host == null) {
+            throw new IllegalStateException("set -D" + HOST_PROPERTY + " to the MySQL server to benchmark");
+        }
+        String user = System.getProperty("dbreader.mysql.user", "cst8288");
+        String pass = System.getProperty("dbreader.mysql.pass", "8288");
+        MySQLURLBuilder builder = new MySQLURLBuilder();
+        builder.setAddress(host);
+        builder.setPort(System.getProperty("dbreader.mysql.port", "3306"));
+        builder.setCatalog(System.getProperty("dbreader.mysql.catalog", "dbreader_bench"));
+        builder.addURLProperty("serverTimezone", "UTC");
+        fill(builder.getURL(), user, pass);
+        Map<Workload, String> urls = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            builder.setProfile(workload, NO_PROFILE.equals(profile) ? null : MySQLProfile.forName(profile));
+            urls.put(workload, builder.getURL(workload));
+        }
+        model = new JDBCModel();
+        model.setCredential(user, pass);
+        model.getResultCache().setLimits(0, 0);
+        model.connectTo(urls.get(Workload.INTERACTIVE), urls);
+        model.getTableSchema(TABLE);
+        exportFile = Files.createTempFile("profile_bench", ".csv");
+    }
+
+    //the table is filled again only when it does not have the rows asked for
+    private void fill(String url, String user, String pass) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url + "&rewriteBatchedStatements=true", user,
+                pass); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists " + TABLE + "(id bigint primary key,"
+                    + " title varchar(100) not null, body varchar(1000) not null, amount int not null,"
+                    + " created datetime not null)");
+            try (ResultSet rs = statement.executeQuery("select count(*) from " + TABLE)) {
+                rs.next();
+                if (rs.getLong(1) == rows) {
+                    return;
+                }
+            }
+            statement.execute("truncate table " + TABLE);
+            String body = String.join("", Collections.nCopies(40, "lorem ipsum "));
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement("insert into " + TABLE
+                    + " values (?, ?, ?, ?, ?)")) {
+                for (int id = 1; id <= rows; id++) {
+                    ps.setLong(1, id);
+                    ps.setString(2, "word" + id % 1000 + " title " + id);
+                    ps.setString(3, body);
+                    ps.setInt(4, id % 5000);
+                    ps.setTimestamp(5, new Timestamp(1609459200000L + id * 60_000L));
+                    ps.addBatch();
+                    if (id % 10_000 == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        model.close();
+        Files.deleteIfExists(exportFile);
+    }
+
+    //about 0.1% of the rows, read into a ResultTable
+    @Benchmark
+    public ResultTable search() throws SQLException {
+        return model.searchResult(TABLE, "word42");
+    }
+
+    //one page in the middle of the table, the query of the paged table view
+    @Benchmark
+    public ResultTable page() throws SQLException {
+        return model.fetchPage(TABLE, "id", (long) rows / 2, PAGE_SIZE);
+    }
+
+    //the whole table to a file
+    @Benchmark
+    public long export() throws SQLException, IOException {
+        return model.export(TABLE, "", exportFile, ExportFormat.CSV, null, null);
+    }
+
+    //a batch of edited cells in one transaction, every round writes new values so each edit changes a row
+    @Benchmark
+    public int edit() throws SQLException {
+        EditBuffer buffer = new EditBuffer(TABLE, Collections.singletonList("id"));
+        int round = ++editRound;
+        for (int i = 0; i < EDITS; i++) {
+            long id = (long) i * rows / EDITS + 1;
+            buffer.put(Collections.singletonList(id), "amount", round);
+        }
+        return model.applyEdits(buffer);
+    }
+}
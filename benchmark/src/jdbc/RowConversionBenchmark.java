@@ -0,0 +1,73 @@
+package jdbc;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * RowConversionBenchmark class
+ * Cost of turning a loaded {@link ResultTable} into what the table view shows, the way the view populates its
+ * cells: every row as a list of objects, or every cell as text. the rows are read from the database once per trial.
+ *
+ * @author Juan Ni
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowConversionBenchmark {
+    @Param({ "4", "16" })
+    public int width;
+
+    @Param({ "1000", "100000" })
+    public int rows;
+
+    private ResultTable result;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase database = BenchmarkDatabase.create("rows_" + width + "_" + rows, width, rows);
+        JDBCModel model = database.connect();
+        try {
+            result = model.getAllResult(BenchmarkDatabase.TABLE);
+        } finally {
+            model.close();
+            database.close();
+        }
+    }
+
+    @Benchmark
+    public void toRows(Blackhole blackhole) {
+        for (int row = 0; row < result.getRowCount(); row++) {
+            List<Object> values = result.getRow(row);
+            blackhole.consume(values);
+        }
+    }
+
+    @Benchmark
+    public void toStrings(Blackhole blackhole) {
+        int columns = result.getColumnCount();
+        for (int row = 0; row < result.getRowCount(); row++) {
+            for (int col = 0; col < columns; col++) {
+                blackhole.consume(result.getString(row, col));
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * RowMapperBenchmark class
+ * Reading every row of a table as lists of objects, before and after {@link RowMapper}: byLabel calls getObject
+ * with the column label for every cell like extractRowsFromResultSet used to, mapper reads the cells by index with
+ * the typed getters. the query is the same in both, so the difference is the cost of reading the cells.
+ *
+ * @author Juan Ni
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+    @Param({ "4", "16", "64" })
+    public int width;
+
+    @Param({ "10000" })
+    public int rows;
+
+    private BenchmarkDatabase database;
+    private Connection connection;
+    private PreparedStatement ps;
+    private List<String> columns;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.create("mapper_" + width + "_" + rows, width, rows);
+        connection = DriverManager.getConnection(database.getURL(), BenchmarkDatabase.USER, BenchmarkDatabase.PASS);
+        ps = connection.prepareStatement("select * from " + BenchmarkDatabase.TABLE);
+        columns = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                columns.add(meta.getColumnLabel(i));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        ps.close();
+        connection.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void byLabel(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                List<Object> row = new ArrayList<>(columns.size());
+                for (String label : columns) {
+                    row.add(rs.getObject(label));
+                }
+                blackhole.consume(row);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapper(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            RowMapper mapper = RowMapper.create(rs, columns);
+            while (rs.next()) {
+                blackhole.consume(mapper.mapRow(rs));
+            }
+        }
+    }
+}
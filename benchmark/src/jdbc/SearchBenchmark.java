@@ -0,0 +1,83 @@
+package jdbc;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * SearchBenchmark class
+ * Runs searches of the model end to end against the embedded database: building the statement, executing it and
+ * reading the rows either as lists, the path of extractRowsFromResultSet, or into a {@link ResultTable}. the result
+ * cache is off so every call reads the table.
+ *
+ * @author Juan Ni
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({ "4", "16" })
+    public int width;
+
+    @Param({ "1000", "100000" })
+    public int rows;
+
+    //all rows, text only and a number that also matches the numeric and date columns
+    @Param({ "", "word42", "2021" })
+    public String term;
+
+    private BenchmarkDatabase database;
+    private JDBCModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.create("search_" + width + "_" + rows, width, rows);
+        model = database.connect();
+        //the schema is read once like in the application
+        model.getTableSchema(BenchmarkDatabase.TABLE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        model.close();
+        database.close();
+    }
+
+    @Benchmark
+    public List<List<Object>> searchRows() throws SQLException {
+        return model.search(BenchmarkDatabase.TABLE, term);
+    }
+
+    //streaming, the rows are handed to the handler and dropped
+    @Benchmark
+    public void searchStreaming(Blackhole blackhole) throws SQLException {
+        model.search(BenchmarkDatabase.TABLE, term, row -> {
+            blackhole.consume(row);
+            return true;
+        });
+    }
+
+    @Benchmark
+    public ResultTable searchResult() throws SQLException {
+        return model.searchResult(BenchmarkDatabase.TABLE, term);
+    }
+}
@@ -0,0 +1,68 @@
+package jdbc;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SearchQueryBenchmark class
+ * Cost of turning a search term into SQL for a table of the given width, without the database: parsing the term
+ * into a {@link SearchQuery} and building its where clause.
+ *
+ * @author Juan Ni
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchQueryBenchmark {
+    private static final int[] TYPES = { Types.VARCHAR, Types.INTEGER, Types.DECIMAL, Types.TIMESTAMP };
+    private static final String[] TYPE_NAMES = { "VARCHAR", "INT", "DECIMAL", "TIMESTAMP" };
+
+    @Param({ "4", "16", "64" })
+    public int width;
+
+    @Param({ "word42", "2021", "2021-02-03 10:15" })
+    public String term;
+
+    private TableSchema schema;
+
+    @Setup
+    public void setUp() {
+        //same columns as the BenchmarkDatabase table
+        List<TableSchema.Column> columns = new ArrayList<>(width);
+        columns.add(new TableSchema.Column("id", Types.BIGINT, "BIGINT", false));
+        for (int col = 1; col < width; col++) {
+            int kind = (col - 1) % TYPES.length;
+            columns.add(new TableSchema.Column("c" + col, TYPES[kind], TYPE_NAMES[kind], true));
+        }
+        schema = new TableSchema("bench", BenchmarkDatabase.TABLE, columns, Collections.singletonList("id"));
+    }
+
+    @Benchmark
+    public SearchQuery parse() {
+        return SearchQuery.of(schema, term);
+    }
+
+    @Benchmark
+    public String buildSQL() {
+        return SearchQuery.of(schema, term).buildSQL(schema.getTable(), schema.getColumnNames());
+    }
+}
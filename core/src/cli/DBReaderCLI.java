@@ -0,0 +1,393 @@
+package cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import jdbc.EditBuffer;
+import jdbc.JDBCModel;
+import jdbc.SearchMode;
+import jdbc.TableSchema;
+import jdbc.builder.JDBCURLBuilder;
+import jdbc.builder.JDBCURLBuilderFactory;
+import jdbc.builder.MySQLProfile;
+import jdbc.builder.MySQLURLBuilder;
+import jdbc.builder.Workload;
+import jdbc.export.DelimitedReader;
+import jdbc.export.DelimitedWriter;
+import jdbc.export.ExportFormat;
+
+/**
+ * DBReaderCLI class
+ * Command line entry point of DBReader for scripts, cron jobs and servers without a display. it drives
+ * {@link JDBCModel} directly and never loads a JavaFX class, so it starts in the time the JVM and the JDBC driver
+ * need and runs with only the drivers on the class path. rows are streamed as CSV or TSV to stdout or to a file,
+ * messages go to stderr.
+ *
+ * <pre>
+ * DBReaderCLI [options] tables                  names of the tables, one per line
+ * DBReaderCLI [options] columns TABLE           names of the columns, one per line
+ * DBReaderCLI [options] count TABLE             number of rows
+ * DBReaderCLI [options] search TABLE TERM       rows matching TERM
+ * DBReaderCLI [options] export TABLE [TERM]     all rows, or the ones matching TERM
+ * DBReaderCLI [options] edit TABLE [FILE]       apply the edits in FILE, or stdin, in one transaction
+ * </pre>
+ *
+ * the database is given with --url=URL, or with --type=mysql|postgresql|sqlite|h2, --host, --port, --catalog and
+ * --property=key=value, which can be repeated. --user and --pass, or the DBREADER_PASS environment variable, are
+ * the credential. --format=csv|tsv, --out=FILE and --searchMode=like|fulltext change the output and the search,
+ * --interactiveProfile, --exportProfile and --editProfile pick a MySQL profile like in the application.
+ *
+ * the first row of an edit file names the columns: the key columns, by default the primary key of the table or
+ * the ones given with --key=col1,col2, find the row and every other column is set to its value. empty fields leave
+ * their cell as it is.
+ *
+ * @author Juan Ni
+ *
+ */
+public class DBReaderCLI {
+    static final int OK = 0;
+    static final int FAILED = 1;
+    static final int USAGE = 2;
+    static final String PASS_VARIABLE = "DBREADER_PASS";
+
+    private static final List<String> OPTIONS = Arrays.asList("url", "type", "host", "port", "catalog", "property",
+            "user", "pass", "format", "out", "searchMode", "key", "interactiveProfile", "exportProfile",
+            "editProfile");
+    private static final String USAGE_TEXT = String.join(System.lineSeparator(),
+            "usage: DBReaderCLI [options] command [arguments]",
+            "commands:",
+            "  tables                  names of the tables",
+            "  columns TABLE           names of the columns of TABLE",
+            "  count TABLE             number of rows in TABLE",
+            "  search TABLE TERM       rows of TABLE matching TERM",
+            "  export TABLE [TERM]     all rows of TABLE, or the ones matching TERM",
+            "  edit TABLE [FILE]       apply the edits in FILE, or stdin, to TABLE",
+            "options:",
+            "  --url=URL               JDBC URL, instead of the options below",
+            "  --type=TYPE             " + String.join("|", JDBCURLBuilderFactory.getDBTypes())
+                    + ", mysql if not given",
+            "  --host=HOST --port=PORT --catalog=NAME",
+            "  --property=KEY=VALUE    connection URL property, can be repeated",
+            "  --user=USER --pass=PASS the password can also be in " + PASS_VARIABLE,
+            "  --format=csv|tsv        format of the rows, from the extension of --out or FILE if not given",
+            "  --out=FILE              write the rows to FILE instead of stdout",
+            "  --searchMode=like|fulltext",
+            "  --key=COLUMN[,COLUMN]   columns of an edit file that find the row, needed without a primary key",
+            "  --interactiveProfile=NAME --exportProfile=NAME --editProfile=NAME  MySQL profiles");
+
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final Map<String, String> environment;
+    private final Map<String, String> named;
+    private final List<String> properties;
+    private final List<String> unnamed;
+
+    DBReaderCLI(InputStream in, PrintStream out, PrintStream err, Map<String, String> environment) {
+        this.in = in;
+        this.out = out;
+        this.err = err;
+        this.environment = environment;
+        named = new HashMap<>();
+        properties = new ArrayList<>();
+        unnamed = new ArrayList<>();
+    }
+
+    public static void main(String[] args) {
+        System.exit(new DBReaderCLI(System.in, System.out, System.err, System.getenv()).run(args));
+    }
+
+    /**
+     * run one command.
+     *
+     * @return exit code, OK, FAILED if the database, a file or the command failed or USAGE if the arguments are wrong
+     */
+    int run(String[] args) {
+        //the usage only helps with the mistakes found before connecting
+        boolean started = false;
+        try {
+            parse(args);
+            if (unnamed.isEmpty()) {
+                throw new IllegalArgumentException("a command is needed");
+            }
+            String command = unnamed.get(0);
+            List<String> arguments = unnamed.subList(1, unnamed.size());
+            checkArguments(command, arguments);
+            Map<Workload, String> urls = getWorkloadURLs();
+            started = true;
+            JDBCModel model = new JDBCModel();
+            try {
+                connect(model, urls);
+                execute(model, command, arguments);
+            } finally {
+                model.close();
+            }
+            return OK;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            err.println(e.getMessage());
+            //after connecting it is the command that failed, for example a column of an edit file the table lacks
+            if (started) {
+                return FAILED;
+            }
+            err.println(USAGE_TEXT);
+            return USAGE;
+        } catch (SQLException | IOException e) {
+            err.println(e.getMessage());
+            return FAILED;
+        } finally {
+            out.flush();
+        }
+    }
+
+    //--name=value are options, everything else is the command and its arguments
+    private void parse(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                unnamed.add(arg);
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("option " + arg + " needs a value, as " + arg + "=value");
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("option --" + name + " is not known");
+            }
+            if ("property".equals(name)) {
+                properties.add(value);
+            } else {
+                named.put(name, value);
+            }
+        }
+        //the choices are checked now, so a wrong one is reported before connecting
+        getFormat(null);
+        getSearchMode();
+    }
+
+    //the constant of type with the name of value, whatever its case
+    private static <E extends Enum<E>> E parseChoice(Class<E> type, String option, String value) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("--" + option + "=" + value + " is not one of "
+                + Arrays.toString(type.getEnumConstants()).toLowerCase(Locale.ROOT));
+    }
+
+    private SearchMode getSearchMode() {
+        String searchMode = named.get("searchMode");
+        return searchMode == null ? SearchMode.LIKE : parseChoice(SearchMode.class, "searchMode", searchMode);
+    }
+
+    private void connect(JDBCModel model, Map<Workload, String> urls) throws SQLException {
+        String pass = named.getOrDefault("pass", environment.get(PASS_VARIABLE));
+        model.setCredential(named.get("user"), pass);
+        model.setSearchMode(getSearchMode());
+        model.connectTo(urls.get(Workload.INTERACTIVE), urls);
+    }
+
+    //the URLs of the workloads, the same URL for all of them unless MySQL profiles are given
+    private Map<Workload, String> getWorkloadURLs() {
+        Map<Workload, String> urls = new EnumMap<>(Workload.class);
+        Map<Workload, MySQLProfile> profiles = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            String profile = named.get(workload.name().toLowerCase(Locale.ROOT) + "Profile");
+            if (profile != null) {
+                profiles.put(workload, MySQLProfile.forName(profile));
+            }
+        }
+        String url = named.get("url");
+        if (url != null) {
+            if (!profiles.isEmpty() || !properties.isEmpty()) {
+                throw new IllegalArgumentException("profiles and --property cannot be used with --url");
+            }
+            for (Workload workload : Workload.values()) {
+                urls.put(workload, url);
+            }
+            return urls;
+        }
+        JDBCURLBuilder builder = JDBCURLBuilderFactory.create(named.getOrDefault("type", "mysql"));
+        String catalog = named.get("catalog");
+        if (catalog == null) {
+            throw new IllegalArgumentException("--catalog or --url is needed");
+        }
+        builder.setAddress(named.getOrDefault("host", "localhost"));
+        builder.setPort(named.getOrDefault("port", Integer.toString(builder.getDefaultPort())));
+        builder.setCatalog(catalog);
+        for (String property : properties) {
+            int equals = property.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("--property=" + property + " is not key=value");
+            }
+            builder.addURLProperty(property.substring(0, equals), property.substring(equals + 1));
+        }
+        if (!profiles.isEmpty()) {
+            if (!(builder instanceof MySQLURLBuilder)) {
+                throw new IllegalArgumentException("profiles are only for mysql");
+            }
+            for (Map.Entry<Workload, MySQLProfile> profile : profiles.entrySet()) {
+                ((MySQLURLBuilder) builder).setProfile(profile.getKey(), profile.getValue());
+            }
+        }
+        for (Workload workload : Workload.values()) {
+            urls.put(workload, builder.getURL(workload));
+        }
+        return urls;
+    }
+
+    private void execute(JDBCModel model, String command, List<String> arguments) throws SQLException, IOException {
+        switch (command) {
+            case "tables":
+                printLines(model.getAndInitializeTableNames());
+                break;
+            case "columns":
+                printLines(model.getAndInitializeColumnNames(arguments.get(0)));
+                break;
+            case "count":
+                out.println(model.count(arguments.get(0)));
+                break;
+            case "search":
+                export(model, arguments.get(0), arguments.get(1));
+                break;
+            case "export":
+                export(model, arguments.get(0), arguments.size() > 1 ? arguments.get(1) : "");
+                break;
+            case "edit":
+                out.println(edit(model, arguments.get(0), arguments.size() > 1 ? arguments.get(1) : null));
+                break;
+            default:
+                throw new IllegalStateException("command " + command + " is not known");
+        }
+    }
+
+    //the command is known and has the right number of arguments
+    private static void checkArguments(String command, List<String> arguments) {
+        int min;
+        int max;
+        switch (command) {
+            case "tables":
+                min = 0;
+                max = 0;
+                break;
+            case "columns":
+            case "count":
+                min = 1;
+                max = 1;
+                break;
+            case "search":
+                min = 2;
+                max = 2;
+                break;
+            case "export":
+            case "edit":
+                min = 1;
+                max = 2;
+                break;
+            default:
+                throw new IllegalArgumentException("command " + command + " is not known");
+        }
+        if (arguments.size() < min || arguments.size() > max) {
+            throw new IllegalArgumentException(command + " takes " + (min == max ? min : min + " to " + max)
+                    + " arguments, got " + arguments.size());
+        }
+    }
+
+    private void printLines(List<String> lines) {
+        for (String line : lines) {
+            out.println(line);
+        }
+    }
+
+    //--format if given, otherwise the extension of fileName, CSV without either
+    private ExportFormat getFormat(String fileName) {
+        String format = named.get("format");
+        if (format != null) {
+            return parseChoice(ExportFormat.class, "format", format);
+        }
+        return fileName == null ? ExportFormat.CSV : ExportFormat.forFileName(fileName);
+    }
+
+    //to --out through a temporary file, or straight to stdout
+    private void export(JDBCModel model, String table, String searchTerm) throws SQLException, IOException {
+        String file = named.get("out");
+        ExportFormat format = getFormat(file);
+        long rows;
+        if (file != null) {
+            rows = model.export(table, searchTerm, Paths.get(file), format, null, null);
+        } else {
+            //stdout stays open for the exit code and the messages after the rows
+            DelimitedWriter writer = new DelimitedWriter(Channels.newChannel(out), format);
+            rows = model.export(table, searchTerm, writer, null, null);
+        }
+        err.println(rows + " rows");
+    }
+
+    //number of updated rows
+    private int edit(JDBCModel model, String table, String file) throws SQLException, IOException {
+        ExportFormat format = getFormat(file);
+        try (DelimitedReader reader = file == null || "-".equals(file)
+                ? new DelimitedReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), format)
+                : DelimitedReader.open(Paths.get(file), format)) {
+            List<String> header = reader.readRow();
+            if (header == null) {
+                return 0;
+            }
+            TableSchema schema = model.getTableSchema(table);
+            String key = named.get("key");
+            //without a primary key nothing is sure to find a single row, the key columns must be given
+            if (key == null && schema.getPrimaryKeys().isEmpty()) {
+                throw new IllegalArgumentException("table " + table + " has no primary key, give the columns that"
+                        + " find a row with --key");
+            }
+            List<String> keyColumns = key == null ? schema.getPrimaryKeys() : Arrays.asList(key.split(","));
+            int[] keyIndexes = new int[keyColumns.size()];
+            for (int i = 0; i < keyIndexes.length; i++) {
+                keyIndexes[i] = header.indexOf(keyColumns.get(i));
+                if (keyIndexes[i] < 0) {
+                    throw new IllegalArgumentException("key column " + keyColumns.get(i) + " is not in the header");
+                }
+            }
+            EditBuffer buffer = new EditBuffer(table, keyColumns);
+            List<String> row;
+            long line = reader.getLineNumber();
+            while ((row = reader.readRow()) != null) {
+                //blank lines are skipped
+                if (row.size() == 1 && row.get(0).isEmpty()) {
+                    line = reader.getLineNumber();
+                    continue;
+                }
+                if (row.size() != header.size()) {
+                    throw new IOException("line " + line + " has " + row.size() + " fields, the header has "
+                            + header.size());
+                }
+                List<Object> keyValues = new ArrayList<>(keyIndexes.length);
+                for (int index : keyIndexes) {
+                    keyValues.add(row.get(index));
+                }
+                for (int i = 0; i < row.size(); i++) {
+                    if (!keyColumns.contains(header.get(i)) && !row.get(i).isEmpty()) {
+                        buffer.put(keyValues, header.get(i), row.get(i));
+                    }
+                }
+                line = reader.getLineNumber();
+            }
+            return model.applyEdits(buffer);
+        }
+    }
+}
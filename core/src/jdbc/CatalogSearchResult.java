@@ -0,0 +1,96 @@
+package jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CatalogSearchResult class
+ * Outcome of {@link JDBCModel#searchCatalog}: the tables with matching rows in the order their searches finished, the
+ * tables that were not searched because the time or row budget ran out, and the tables whose search failed.
+ * 
+ * @author Juan Ni
+ *
+ */
+public class CatalogSearchResult {
+    private final Map<String, ResultTable> hits;
+    private final List<String> skipped;
+    private final Map<String, SQLException> failures;
+    private int searchedCount;
+    private boolean timedOut;
+    private boolean rowLimitReached;
+
+    CatalogSearchResult() {
+        hits = new LinkedHashMap<>();
+        skipped = new ArrayList<>();
+        failures = new LinkedHashMap<>();
+    }
+
+    synchronized void searched(String table, ResultTable result) {
+        searchedCount++;
+        if (result.getRowCount() > 0) {
+            hits.put(table, result);
+        }
+    }
+
+    synchronized void skipped(String table) {
+        skipped.add(table);
+    }
+
+    synchronized void failed(String table, SQLException e) {
+        failures.put(table, e);
+    }
+
+    synchronized void setTimedOut() {
+        timedOut = true;
+    }
+
+    synchronized void setRowLimitReached() {
+        rowLimitReached = true;
+    }
+
+    //matching rows per table, tables without a match are left out
+    public synchronized Map<String, ResultTable> getHits() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(hits));
+    }
+
+    public synchronized int getHitCount() {
+        int count = 0;
+        for (ResultTable result : hits.values()) {
+            count += result.getRowCount();
+        }
+        return count;
+    }
+
+    //tables searched completely, with or without a match
+    public synchronized int getSearchedCount() {
+        return searchedCount;
+    }
+
+    //tables never searched or stopped part way because a budget ran out
+    public synchronized List<String> getSkipped() {
+        return Collections.unmodifiableList(new ArrayList<>(skipped));
+    }
+
+    public synchronized Map<String, SQLException> getFailures() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    public synchronized boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public synchronized boolean isRowLimitReached() {
+        return rowLimitReached;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CatalogSearchResult[searched=" + searchedCount + ", tables with hits=" + hits.size() + ", skipped="
+                + skipped.size() + ", failed=" + failures.size() + ", timedOut=" + timedOut + ", rowLimitReached="
+                + rowLimitReached + "]";
+    }
+}
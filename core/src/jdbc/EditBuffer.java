@@ -0,0 +1,185 @@
+package jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * EditBuffer class
+ * Pending cell edits of one table. each edit is identified by the key values of its row and the edited column, so
+ * editing the same cell twice only keeps the last value. the edits are written together by
+ * {@link JDBCModel#applyEdits(EditBuffer)} in one transaction.
+ *
+ * @author Juan Ni
+ *
+ */
+public class EditBuffer {
+    private final String table;
+    private final List<String> keyColumns;
+    private final Map<CellKey, CellEdit> edits;
+
+    public EditBuffer(String table, List<String> keyColumns) {
+        this.table = Objects.requireNonNull(table, "table name cannot be null");
+        if (keyColumns == null || keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("at least one key column is needed to find the edited rows");
+        }
+        this.keyColumns = Collections.unmodifiableList(new ArrayList<>(keyColumns));
+        edits = new LinkedHashMap<>();
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    //columns whose values identify a row, in the order the key values are given
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public synchronized void put(List<Object> keyValues, String column, Object newValue) {
+        if (keyValues.size() != keyColumns.size()) {
+            throw new IllegalArgumentException(keyColumns.size() + " key values are needed, got " + keyValues.size());
+        }
+        CellKey key = new CellKey(keyValues, column);
+        edits.remove(key);
+        edits.put(key, new CellEdit(key, newValue));
+    }
+
+    //pending value of the cell, or null when the cell is not edited
+    public synchronized CellEdit get(List<Object> keyValues, String column) {
+        return edits.get(new CellKey(keyValues, column));
+    }
+
+    /**
+     * positions of the key columns among the columns of a result, ignoring case like
+     * {@link ResultTable#getColumnIndex(String)}. null if the result does not hold all of them. resolve them once per
+     * result and pass them to {@link #getValue(ResultTable.Row, int, int[])} instead of looking them up for every
+     * cell.
+     */
+    public int[] getKeyIndexes(List<String> columnNames) {
+        int[] keyIndexes = new int[keyColumns.size()];
+        for (int k = 0; k < keyIndexes.length; k++) {
+            keyIndexes[k] = -1;
+            for (int i = 0; i < columnNames.size(); i++) {
+                if (columnNames.get(i).equalsIgnoreCase(keyColumns.get(k))) {
+                    keyIndexes[k] = i;
+                    break;
+                }
+            }
+            if (keyIndexes[k] < 0) {
+                return null;
+            }
+        }
+        return keyIndexes;
+    }
+
+    //values of the key columns in the row, null if the row does not hold all of them
+    public List<Object> getKeyValues(ResultTable.Row row) {
+        return getKeyValues(row, getKeyIndexes(row.getTable().getColumnNames()));
+    }
+
+    //values of the key columns in the row, null if keyIndexes is null
+    public List<Object> getKeyValues(ResultTable.Row row, int[] keyIndexes) {
+        if (keyIndexes == null) {
+            return null;
+        }
+        List<Object> keyValues = new ArrayList<>(keyIndexes.length);
+        for (int index : keyIndexes) {
+            keyValues.add(row.getObject(index));
+        }
+        return keyValues;
+    }
+
+    //pending value of the cell when it is edited, otherwise the value in the row
+    public Object getValue(ResultTable.Row row, int col) {
+        return isEmpty() ? row.getObject(col) : getValue(row, col, getKeyIndexes(row.getTable().getColumnNames()));
+    }
+
+    //same as getValue(row, col) with the key indexes of the row's result resolved beforehand
+    public Object getValue(ResultTable.Row row, int col, int[] keyIndexes) {
+        if (!isEmpty()) {
+            List<Object> keyValues = getKeyValues(row, keyIndexes);
+            CellEdit edit = keyValues == null ? null : get(keyValues, row.getTable().getColumnName(col));
+            if (edit != null) {
+                return edit.getValue();
+            }
+        }
+        return row.getObject(col);
+    }
+
+    public synchronized int size() {
+        return edits.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return edits.isEmpty();
+    }
+
+    public synchronized void clear() {
+        edits.clear();
+    }
+
+    //copy of the pending edits in the order they were made
+    public synchronized List<CellEdit> getEdits() {
+        return new ArrayList<>(edits.values());
+    }
+
+    //forget the given edits after they were written, a cell edited again in the meantime stays pending
+    synchronized void removeAll(List<CellEdit> written) {
+        for (CellEdit edit : written) {
+            edits.remove(edit.key, edit);
+        }
+    }
+
+    /**
+     * one pending edit.
+     */
+    public static final class CellEdit {
+        private final CellKey key;
+        private final Object value;
+
+        private CellEdit(CellKey key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public List<Object> getKeyValues() {
+            return key.keyValues;
+        }
+
+        public String getColumn() {
+            return key.column;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+
+    private static final class CellKey {
+        private final List<Object> keyValues;
+        private final String column;
+
+        private CellKey(List<Object> keyValues, String column) {
+            this.keyValues = Collections.unmodifiableList(new ArrayList<>(keyValues));
+            this.column = Objects.requireNonNull(column, "column cannot be null");
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CellKey)) {
+                return false;
+            }
+            CellKey other = (CellKey) obj;
+            return column.equals(other.column) && keyValues.equals(other.keyValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * column.hashCode() + keyValues.hashCode();
+        }
+    }
+}
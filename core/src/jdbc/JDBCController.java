@@ -0,0 +1,432 @@
+package jdbc;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+
+import jdbc.builder.JDBCURLBuilder;
+import jdbc.builder.MySQLProfile;
+import jdbc.builder.MySQLURLBuilder;
+import jdbc.builder.Workload;
+import jdbc.export.ExportFormat;
+import jdbc.export.ExportListener;
+import jdbc.metrics.MetricsListener;
+import jdbc.pool.LeakListener;
+
+/**
+ * JDBCController class
+ * Finished by Juan Ni on Feb 15, 2021
+ * Has no UI dependency, a GUI wraps it to observe the table in use and the table names.
+ * 
+ * @author Juan Ni
+ *
+ */
+public class JDBCController implements AutoCloseable {
+    /**
+     * number of threads running asynchronous queries
+     */
+    private static final int QUERY_THREADS = 4;
+    /**
+     * default budgets of a catalog wide search
+     */
+    public static final int DEFAULT_CATALOG_SEARCH_WORKERS = 4;
+    public static final long DEFAULT_CATALOG_SEARCH_MILLIS = 30_000;
+    public static final long DEFAULT_CATALOG_SEARCH_ROWS = 10_000;
+
+    private JDBCURLBuilder builder;
+    private JDBCModel model;
+    private volatile String tableUse;
+    private ExecutorService queryExecutor;
+    private Executor callbackExecutor;
+    private int catalogSearchWorkers = DEFAULT_CATALOG_SEARCH_WORKERS;
+    private long catalogSearchMillis = DEFAULT_CATALOG_SEARCH_MILLIS;
+    private long catalogSearchRows = DEFAULT_CATALOG_SEARCH_ROWS;
+    private final Map<Workload, MySQLProfile> profiles = new EnumMap<>(Workload.class);
+
+    /**
+     * work done by an asynchronous method, it may watch the handle to stop early.
+     */
+    @FunctionalInterface
+    private interface QueryTask<T> {
+        T run(QueryHandle handle) throws SQLException, IOException;
+    }
+
+    public JDBCController() {
+        model = new JDBCModel();
+        AtomicInteger threadCount = new AtomicInteger();
+        queryExecutor = Executors.newFixedThreadPool(QUERY_THREADS, r -> {
+            Thread thread = new Thread(r, "jdbc-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        //by default results are delivered on the query thread, the GUI sets Platform::runLater instead
+        callbackExecutor = Runnable::run;
+    }
+
+    //table the other methods work on, its column names are read ahead
+    public JDBCController setTableInUse(String table) {
+        tableUse = table;
+        try {
+            //served from the schema cache after the first visit of a table
+            if (table != null && model.isConnected()) {
+                model.getAndInitializeColumnNames(table);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return this;
+    }
+
+    public String getTableInUse() {
+        return tableUse;
+    }
+
+    //executor used to deliver the batches and the results of the asynchronous methods
+    public JDBCController setCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        return this;
+    }
+
+    //publish the query metrics, pool and cache statistics of the model over JMX, see JDBCModel#registerMBeans
+    public JDBCController registerMetrics(String name) throws JMException {
+        model.registerMBeans(name);
+        return this;
+    }
+
+    //listener is called through the callback executor after every query or update, null removes it
+    public JDBCController setMetricsListener(MetricsListener listener) {
+        model.getMetrics().setListener(listener == null ? null
+                : summary -> callbackExecutor.execute(() -> listener.queryFinished(summary)));
+        return this;
+    }
+
+    //searches slower than thresholdMillis are logged to file with their EXPLAIN, null file turns the log off
+    public JDBCController setSlowQueryLog(Path file, long thresholdMillis) throws IOException {
+        model.setSlowQueryLog(file, thresholdMillis);
+        return this;
+    }
+
+    //record where connections are borrowed, used by the next connect, see JDBCModel#setLeakDetection
+    public JDBCController setLeakDetection(boolean leakDetection) {
+        model.setLeakDetection(leakDetection);
+        return this;
+    }
+
+    //listener is told about leaked connections through the callback executor, null removes it
+    public JDBCController setLeakListener(LeakListener listener) {
+        model.setLeakListener(listener == null ? null
+                : (heldMillis, borrowTrace) -> callbackExecutor.execute(
+                        () -> listener.leakDetected(heldMillis, borrowTrace)));
+        return this;
+    }
+
+    public JDBCController setURLBuilder(JDBCURLBuilder builder) {
+        this.builder = builder;
+        return this;
+    }
+
+    public JDBCController setDataBase(String address, String port, String catalog) {
+        builder.setAddress(address);
+        builder.setPort(port);
+        builder.setCatalog(catalog);
+        return this;
+    }
+
+    public JDBCController addConnectionURLProperty(String key, String value) {
+        builder.addURLProperty(key, value);
+        return this;
+    }
+
+    public JDBCController setCredentials(String user, String pass) {
+        model.setCredential(user, pass);
+        return this;
+    }
+
+    //profile used for workload when connecting to MySQL, null for none. used by the next connect
+    public JDBCController setProfile(Workload workload, MySQLProfile profile) {
+        Objects.requireNonNull(workload, "workload cannot be null");
+        if (profile == null) {
+            profiles.remove(workload);
+        } else {
+            profiles.put(workload, profile);
+        }
+        return this;
+    }
+
+    //URL of every workload, with the profiles applied when the builder is the MySQL one
+    private Map<Workload, String> getWorkloadURLs() {
+        if (builder instanceof MySQLURLBuilder) {
+            for (Workload workload : Workload.values()) {
+                ((MySQLURLBuilder) builder).setProfile(workload, profiles.get(workload));
+            }
+        }
+        Map<Workload, String> urls = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            urls.put(workload, builder.getURL(workload));
+        }
+        return urls;
+    }
+
+    //connect method will get the url from builder and pass it to connectTo of model
+    public JDBCController connect() throws SQLException {
+        Map<Workload, String> urls = getWorkloadURLs();
+        model.connectTo(urls.get(Workload.INTERACTIVE), urls);
+        return this;
+    }
+
+    //connect on a query thread and read the table names into the cache, call getTableNames when it completes
+    public QueryFuture<Void> connectAsync() {
+        Map<Workload, String> urls = getWorkloadURLs();
+        return submit(handle -> {
+            model.connectTo(urls.get(Workload.INTERACTIVE), urls);
+            model.getAndInitializeTableNames();
+            return null;
+        });
+    }
+
+    //true if a search can be narrowed in memory with a RowIndex, the database compares text whatever its case
+    public boolean isLikeCaseInsensitive() throws SQLException {
+        return model.isLikeCaseInsensitive();
+    }
+
+    public boolean isConnected() throws SQLException {
+        return model.isConnected();
+    }
+
+    public List<String> getColumnNames() throws SQLException {
+        return model.getAndInitializeColumnNames(tableUse);
+    }
+
+    //empty when the model is not connected
+    public List<String> getTableNames() throws SQLException {
+        if (model.isConnected()) {
+            return model.getAndInitializeTableNames();
+        }
+        return Collections.emptyList();
+    }
+
+    public List<List<Object>> getAll() throws SQLException {
+        return model.getAll(tableUse);
+    }
+
+    public void getAll(RowHandler handler) throws SQLException {
+        model.getAll(tableUse, handler);
+    }
+
+    public List<List<Object>> search(String searchTerm) throws SQLException {
+        return model.search(tableUse, searchTerm);
+    }
+
+    public void search(String searchTerm, RowHandler handler) throws SQLException {
+        model.search(tableUse, searchTerm, handler);
+    }
+
+    public ResultTable getAllResult() throws SQLException {
+        return model.getAllResult(tableUse);
+    }
+
+    public ResultTable searchResult(String searchTerm) throws SQLException {
+        return model.searchResult(tableUse, searchTerm);
+    }
+
+    public QueryFuture<ResultTable> getAllAsync(ResultListener listener) {
+        return searchAsync("", listener);
+    }
+
+    /**
+     * run the search on a query thread. listener, if not null, receives the rows in batches through the callback
+     * executor while they are read. cancelling the returned future cancels the statement on the database and no
+     * batch is delivered after that.
+     */
+    public QueryFuture<ResultTable> searchAsync(String searchTerm, ResultListener listener) {
+        return searchAsync(searchTerm, null, listener);
+    }
+
+    //same as above, index if not null gets every batch on the query thread before it is passed to listener
+    public QueryFuture<ResultTable> searchAsync(String searchTerm, RowIndex index, ResultListener listener) {
+        String table = tableUse;
+        return submit(handle -> model.searchResult(table, searchTerm, handle, (result, from, to) -> {
+            if (index != null) {
+                index.addRows(result, from, to);
+            }
+            if (listener != null) {
+                callbackExecutor.execute(() -> {
+                    if (!handle.isCancelled()) {
+                        listener.rowsAdded(result, from, to);
+                    }
+                });
+            }
+        }));
+    }
+
+    /**
+     * search every table of the catalog in parallel. listener, if not null, receives each table with matching rows
+     * through the callback executor as soon as it is searched. cancelling the returned future cancels every
+     * statement still running.
+     */
+    public QueryFuture<CatalogSearchResult> searchCatalogAsync(String searchTerm, TableSearchListener listener) {
+        int workers = catalogSearchWorkers;
+        long millis = catalogSearchMillis;
+        long rows = catalogSearchRows;
+        return submit(handle -> model.searchCatalog(searchTerm, workers, millis, rows, handle,
+                listener == null ? null : (table, hits) -> callbackExecutor.execute(() -> {
+                    if (!handle.isCancelled()) {
+                        listener.tableSearched(table, hits);
+                    }
+                })));
+    }
+
+    //number of tables searched at the same time, and when a catalog search stops
+    public JDBCController setCatalogSearchLimits(int workers, long timeBudgetMillis, long rowBudget) {
+        if (workers < 1 || timeBudgetMillis <= 0 || rowBudget <= 0) {
+            throw new IllegalArgumentException("workers=" + workers + ", timeBudgetMillis=" + timeBudgetMillis
+                    + ", rowBudget=" + rowBudget + " must be positive");
+        }
+        catalogSearchWorkers = workers;
+        catalogSearchMillis = timeBudgetMillis;
+        catalogSearchRows = rowBudget;
+        return this;
+    }
+
+    //write the rows of the search to file as they are read, see JDBCModel#export
+    public long export(String searchTerm, Path file, ExportFormat format) throws SQLException, IOException {
+        return model.export(tableUse, searchTerm, file, format, null, null);
+    }
+
+    /**
+     * export on a query thread, completes with the number of rows written. listener, if not null, is told the
+     * progress through the callback executor. cancelling the returned future stops the query and deletes the
+     * unfinished file.
+     */
+    public QueryFuture<Long> exportAsync(String searchTerm, Path file, ExportFormat format, ExportListener listener) {
+        String table = tableUse;
+        return submit(handle -> model.export(table, searchTerm, file, format, handle,
+                listener == null ? null : (rows, bytes) -> callbackExecutor.execute(() -> {
+                    if (!handle.isCancelled()) {
+                        listener.rowsExported(rows, bytes);
+                    }
+                })));
+    }
+
+    public QueryFuture<Void> updateAsync(String keyValue, String col, String newValue) {
+        String table = tableUse;
+        return submit(handle -> {
+            model.update(table, keyValue, col, newValue);
+            return null;
+        });
+    }
+
+    //whether the rows of the table in use can be edited, only a primary key is sure to find a single row
+    public boolean isEditable() throws SQLException {
+        return !getTableSchema().getPrimaryKeys().isEmpty();
+    }
+
+    //empty edit buffer for the table in use, rows are identified by its primary key
+    public EditBuffer createEditBuffer() throws SQLException {
+        return model.createEditBuffer(tableUse);
+    }
+
+    public int applyEdits(EditBuffer buffer) throws SQLException {
+        return model.applyEdits(buffer);
+    }
+
+    //write the pending edits on a query thread, completes with the number of updated rows
+    public QueryFuture<Integer> applyEditsAsync(EditBuffer buffer) {
+        return submit(handle -> model.applyEdits(buffer));
+    }
+
+    private <T> QueryFuture<T> submit(QueryTask<T> task) {
+        QueryHandle handle = new QueryHandle();
+        QueryFuture<T> future = new QueryFuture<>(handle);
+        queryExecutor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                T value = task.run(handle);
+                callbackExecutor.execute(() -> future.complete(value));
+            } catch (SQLException | IOException | RuntimeException e) {
+                callbackExecutor.execute(() -> future.completeExceptionally(e));
+            }
+        });
+        return future;
+    }
+
+    //paged view of the table in use, only the pages around the requested rows are kept in memory
+    public KeysetPager createPager(Runnable onChange) throws SQLException {
+        return model.createPager(tableUse, KeysetPager.DEFAULT_PAGE_SIZE, KeysetPager.DEFAULT_MAX_PAGES,
+                onChange);
+    }
+
+    //minimum and maximum number of pooled connections, used by the next connect
+    public JDBCController setPoolSize(int minSize, int maxSize) {
+        model.setPoolSize(minSize, maxSize);
+        return this;
+    }
+
+    //drop the cached table names and schemas and read the table names again
+    public List<String> refreshSchema() throws SQLException {
+        model.refreshSchema();
+        return getTableNames();
+    }
+
+    public TableSchema getTableSchema() throws SQLException {
+        return model.getTableSchema(tableUse);
+    }
+
+    public JDBCController setSchemaCacheTTL(long ttlMillis) {
+        model.setSchemaCacheTTL(ttlMillis);
+        return this;
+    }
+
+    //hit and miss counts of the search result cache can be read from here to size it
+    public ResultCache getResultCache() {
+        return model.getResultCache();
+    }
+
+    //prepared statements kept open per pooled connection, used by the next connect
+    public JDBCController setStatementCacheSize(int size) {
+        model.setStatementCacheSize(size);
+        return this;
+    }
+
+    //LIKE or FULLTEXT, FULLTEXT falls back to LIKE for tables without a FULLTEXT index
+    public JDBCController setSearchMode(SearchMode searchMode) {
+        model.setSearchMode(searchMode);
+        return this;
+    }
+
+    public SearchMode getSearchMode() {
+        return model.getSearchMode();
+    }
+
+    public JDBCController setFetchSize(int fetchSize) {
+        model.setFetchSize(fetchSize);
+        return this;
+    }
+
+    //call update method on model to update database with user input, the row is found by its primary key
+    public void update(String keyValue, String col, String newValue) throws SQLException {
+        model.update(tableUse, keyValue, col, newValue);
+    }
+
+    @Override
+    public void close() throws Exception {
+        queryExecutor.shutdownNow();
+        model.unregisterMBeans();
+        model.setSlowQueryLog(null, 0);
+        model.close();
+    }
+
+}
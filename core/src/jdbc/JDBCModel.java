@@ -0,0 +1,1217 @@
+package jdbc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+
+import jdbc.builder.Workload;
+import jdbc.dialect.Dialect;
+import jdbc.dialect.DialectFactory;
+import jdbc.export.DelimitedWriter;
+import jdbc.export.ExportFormat;
+import jdbc.export.ExportListener;
+import jdbc.metrics.Operation;
+import jdbc.metrics.QueryMetrics;
+import jdbc.metrics.SlowQueryLog;
+import jdbc.pool.ConnectionPool;
+import jdbc.pool.LeakListener;
+
+
+/**
+ * Model class
+ * Finished by Juan Ni on Feb 15, 2021
+ * 
+ * @author Juan Ni
+ *
+ */
+public class JDBCModel {
+    /**
+     * fetch size that streams the result in the way of the database, see {@link Dialect#applyFetchSize}
+     */
+    public static final int STREAMING_FETCH_SIZE = Dialect.STREAMING_FETCH_SIZE;
+    private static final int SEARCH_SQL_CACHE_SIZE = 64;
+    //how often a catalog search checks its budgets
+    private static final long CATALOG_SEARCH_POLL_MILLIS = 50;
+    /**
+     * number of rows read between two calls of a {@link ResultListener}
+     */
+    public static final int BATCH_SIZE = 500;
+
+    //replaced as a whole instead of being modified, so other threads never see a half filled list
+    private volatile List<String> tableNames;
+    private ConnectionPool pool;
+    //pools and dialects of the workloads given their own URL in connectTo, the others use pool
+    private final Map<Workload, ConnectionPool> workloadPools;
+    private final Map<Workload, Dialect> workloadDialects;
+    private String catalog;
+    //null on MySQL, which has no schemas inside a catalog
+    private String schema;
+    private final SchemaCache schemaCache;
+    private final ResultCache resultCache;
+    private String user;
+    private String pass;
+    private int minPoolSize = ConnectionPool.DEFAULT_MIN_SIZE;
+    private int maxPoolSize = ConnectionPool.DEFAULT_MAX_SIZE;
+    private int statementCacheSize = ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE;
+    private boolean leakDetection;
+    private volatile LeakListener leakListener;
+    //generated search SQL per table and predicate shape, reused as long as the column set of the table does not change
+    private final Map<String, SearchSQL> searchSQLCache;
+    //picked from the URL on connectTo, the database specific parts of the SQL and of streaming
+    private Dialect dialect;
+    private int fetchSize = STREAMING_FETCH_SIZE;
+    private volatile SearchMode searchMode = SearchMode.LIKE;
+    private final QueryMetrics metrics;
+    private volatile SlowQueryLog slowQueryLog;
+
+    public JDBCModel() {
+        //Initialize the list and the cache
+        tableNames = Collections.emptyList();
+        schemaCache = new SchemaCache();
+        resultCache = new ResultCache();
+        metrics = new QueryMetrics();
+        workloadPools = new EnumMap<>(Workload.class);
+        workloadDialects = new EnumMap<>(Workload.class);
+        searchSQLCache = Collections.synchronizedMap(new LinkedHashMap<String, SearchSQL>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SearchSQL> eldest) {
+                return size() > SEARCH_SQL_CACHE_SIZE;
+            }
+        });
+    }
+
+    //this method is a setter
+    public void setCredential(String user, String pass) {
+        this.user = user;
+        this.pass = pass;
+    }
+
+    //STREAMING_FETCH_SIZE streams the rows on every database (row by row on MySQL, through a cursor on PostgreSQL),
+    //a positive size is used as a hint for the driver (MySQL needs useCursorFetch=true in the URL to honor it)
+    //and 0 lets the driver read the whole result
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0 && fetchSize != STREAMING_FETCH_SIZE) {
+            throw new IllegalArgumentException("fetch size=" + fetchSize + " is not valid");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    //takes effect on the next connectTo
+    public void setPoolSize(int minSize, int maxSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("minSize=" + minSize + ", maxSize=" + maxSize + " are not valid");
+        }
+        this.minPoolSize = minSize;
+        this.maxPoolSize = maxSize;
+    }
+
+    //number of prepared statements each pooled connection keeps open, 0 turns the cache off.
+    //takes effect on the next connectTo
+    public void setStatementCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("statement cache size=" + size + " cannot be negative");
+        }
+        this.statementCacheSize = size;
+    }
+
+    //record where every connection is borrowed, so leaks given to the leak listener come with a stack trace.
+    //costs a stack trace per borrow, takes effect on the next connectTo
+    public void setLeakDetection(boolean leakDetection) {
+        this.leakDetection = leakDetection;
+    }
+
+    //told about connections held longer than the leak threshold of their pool, null to only count them
+    public void setLeakListener(LeakListener leakListener) {
+        this.leakListener = leakListener;
+        for (ConnectionPool open : getPools()) {
+            open.setLeakListener(leakListener);
+        }
+    }
+
+    //the interactive pool followed by the pools of the workloads, empty when not connected
+    private List<ConnectionPool> getPools() {
+        List<ConnectionPool> pools = new ArrayList<>();
+        if (pool != null) {
+            pools.add(pool);
+        }
+        pools.addAll(workloadPools.values());
+        return pools;
+    }
+
+    //FULLTEXT uses the FULLTEXT indexes of MySQL tables, tables without one are still searched with LIKE
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = Objects.requireNonNull(searchMode, "search mode cannot be null");
+    }
+
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    //how long table names and table schemas are kept before being read again, 0 turns the cache off
+    public void setSchemaCacheTTL(long ttlMillis) {
+        schemaCache.setTTL(ttlMillis);
+    }
+
+    //complete search results are kept here until the table is updated through this model
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    //pool used by this model, null before connectTo is called
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    //latencies, errors and rows of the work done by this model
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    //publish the metrics, the pool and the caches of this model over JMX, see QueryMetrics#register
+    public void registerMBeans(String name) throws JMException {
+        metrics.register(name, new ModelMetrics(this));
+    }
+
+    public void unregisterMBeans() {
+        metrics.unregister();
+    }
+
+    /**
+     * searches taking thresholdMillis or more are written to file with their SQL, bind values and EXPLAIN, which
+     * is run on another pooled connection. the file rotates, see SlowQueryLog. a null file turns the log off, the
+     * log replaced is closed.
+     */
+    public void setSlowQueryLog(Path file, long thresholdMillis) throws IOException {
+        SlowQueryLog log = file == null ? null : new SlowQueryLog(file, thresholdMillis);
+        SlowQueryLog old = slowQueryLog;
+        slowQueryLog = log;
+        if (old != null) {
+            old.close();
+        }
+    }
+
+    //null when the log is off
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    //run loader and record how long it took, or that it failed
+    private <T> T measure(Operation operation, SchemaCache.Loader<T> loader) throws SQLException {
+        long start = QueryMetrics.start();
+        try {
+            T value = loader.load();
+            metrics.record(operation, start);
+            return value;
+        } catch (SQLException | RuntimeException e) {
+            metrics.recordError(operation);
+            throw e;
+        }
+    }
+
+    //this method  throw an exception if the pool is null or closed
+    private void checkConnectionIsValid() throws SQLException {
+        if (!isConnected()) {
+            throw new SQLException("Connection is invalid!");
+        }
+
+    }
+
+    private void checkTableNameAndColumnAreValid(String table) throws SQLException {
+        //1.1
+        Objects.requireNonNull(table, "table name cannot be null");
+        //1.2
+        table = table.trim();
+
+        if (tableNames.isEmpty()) {
+            //1.4
+            getAndInitializeTableNames();
+        }
+
+        if (table.isEmpty() || !tableNames.contains(table)) {
+            //1.6
+            throw new IllegalArgumentException("table name=\"" + table + "\" is not valid");
+        }
+
+    }
+
+    public void connectTo(String url) throws SQLException {
+        connectTo(url, Collections.emptyMap());
+    }
+
+    /**
+     * connect with url for the interactive work and the URLs of workloadURLs for the other workloads, for example
+     * the ones of a {@link jdbc.builder.MySQLURLBuilder} with a profile per workload. a workload without a URL or
+     * with url itself shares the pool of the interactive work, the others get a pool of their own.
+     */
+    public void connectTo(String url, Map<Workload, String> workloadURLs) throws SQLException {
+        Map<Workload, String> ownURLs = new EnumMap<>(Workload.class);
+        for (Map.Entry<Workload, String> workloadURL : workloadURLs.entrySet()) {
+            if (workloadURL.getKey() != Workload.INTERACTIVE && workloadURL.getValue() != null
+                    && !workloadURL.getValue().equals(url)) {
+                ownURLs.put(workloadURL.getKey(), workloadURL.getValue());
+            }
+        }
+        // connecting again to the same database keeps the open pool and its warm connections,
+        // otherwise close the old pool first and open a new one.
+        if (isConnected() && pool.getURL().equals(url) && Objects.equals(pool.getUser(), user)
+                && ownURLs.equals(getWorkloadURLs())) {
+            return;
+        }
+        close();
+        tableNames = Collections.emptyList();
+        schemaCache.invalidateAll();
+        searchSQLCache.clear();
+        resultCache.invalidateAll();
+        dialect = DialectFactory.create(url);
+        pool = createPool(url, dialect);
+        long start = QueryMetrics.start();
+        try {
+            pool.start();
+            try (Connection connection = pool.borrow()) {
+                catalog = connection.getCatalog();
+                schema = connection.getSchema();
+                dialect.init(connection.getMetaData());
+            }
+            for (Map.Entry<Workload, String> ownURL : ownURLs.entrySet()) {
+                Dialect workloadDialect = DialectFactory.create(ownURL.getValue());
+                ConnectionPool workloadPool = createPool(ownURL.getValue(), workloadDialect);
+                workloadPools.put(ownURL.getKey(), workloadPool);
+                workloadDialects.put(ownURL.getKey(), workloadDialect);
+                workloadPool.start();
+                try (Connection connection = workloadPool.borrow()) {
+                    workloadDialect.init(connection.getMetaData());
+                }
+            }
+        } catch (SQLException e) {
+            metrics.recordError(Operation.CONNECT);
+            //half connected is not connected
+            close();
+            throw e;
+        }
+        metrics.record(Operation.CONNECT, start);
+    }
+
+    private ConnectionPool createPool(String url, Dialect poolDialect) {
+        ConnectionPool newPool = new ConnectionPool(url, user, pass).setSize(minPoolSize, maxPoolSize)
+                .setStatementCacheSize(statementCacheSize).setLeakDetection(leakDetection)
+                .setLeakListener(leakListener);
+        for (Map.Entry<String, String> property : poolDialect.getDriverProperties(statementCacheSize).entrySet()) {
+            newPool.setDriverProperty(property.getKey(), property.getValue());
+        }
+        return newPool;
+    }
+
+    //URLs of the workloads that have a pool of their own
+    public Map<Workload, String> getWorkloadURLs() {
+        Map<Workload, String> urls = new EnumMap<>(Workload.class);
+        for (Map.Entry<Workload, ConnectionPool> workloadPool : workloadPools.entrySet()) {
+            urls.put(workloadPool.getKey(), workloadPool.getValue().getURL());
+        }
+        return urls;
+    }
+
+    //a connection for workload, from its own pool if it has one
+    private Connection borrow(Workload workload) throws SQLException {
+        ConnectionPool workloadPool = workloadPools.get(workload);
+        return workloadPool == null ? pool.borrow() : workloadPool.borrow();
+    }
+
+    private Dialect getDialect(Workload workload) {
+        return workloadDialects.getOrDefault(workload, dialect);
+    }
+
+    //true if the searches compare text whatever its case, see Dialect.isLikeCaseInsensitive()
+    public boolean isLikeCaseInsensitive() throws SQLException {
+        checkConnectionIsValid();
+        return getDialect(Workload.INTERACTIVE).isLikeCaseInsensitive();
+    }
+
+    public boolean isConnected() throws SQLException {
+        //if pool is not null and pool is not closed, the model is connected
+        return pool != null && !pool.isClosed();
+    }
+
+    public List<String> getAndInitializeColumnNames(String table) throws SQLException {
+        //1.1
+        checkConnectionIsValid();
+        //1.2 - 1.7 the names come from the cached schema, the database is only read when it is not cached
+        List<String> list = getTableSchema(table).getColumnNames();
+        //1.8
+        return list;
+    }
+
+    public List<String> getAndInitializeTableNames() throws SQLException {
+        //1.1
+        checkConnectionIsValid();
+        //1.2 - 1.7
+        List<String> list = schemaCache.getTableNames(catalog,
+                () -> measure(Operation.METADATA, this::readTableNames));
+        tableNames = list;
+        //1.8
+        return list;
+    }
+
+    //columns, types, nullability, primary key and FULLTEXT indexes of the table, read once then served from the cache
+    public TableSchema getTableSchema(String table) throws SQLException {
+        checkConnectionIsValid();
+        Objects.requireNonNull(table, "table name cannot be null");
+        return schemaCache.getSchema(catalog, table,
+                () -> measure(Operation.METADATA, () -> readTableSchema(table)));
+    }
+
+    //forget everything cached about the catalog, the next request reads the database again
+    public void refreshSchema() {
+        schemaCache.invalidateAll();
+        searchSQLCache.clear();
+        resultCache.invalidateAll();
+        tableNames = Collections.emptyList();
+    }
+
+    public void refreshSchema(String table) {
+        schemaCache.invalidate(catalog, table);
+    }
+
+    private List<String> readTableNames() throws SQLException {
+        List<String> names = new ArrayList<>();
+        //only the current schema, databases with schemas would list their information_schema tables as well
+        try (Connection connection = pool.borrow();
+                ResultSet rs = connection.getMetaData().getTables(catalog, schema, null, new String[] { "TABLE" })) {
+            while (rs.next()) {
+                names.add(rs.getString("TABLE_NAME"));
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    private TableSchema readTableSchema(String table) throws SQLException {
+        List<TableSchema.Column> columns = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<List<String>> fullTextIndexes = Collections.emptyList();
+        try (Connection connection = pool.borrow()) {
+            DatabaseMetaData dbMeta = connection.getMetaData();
+            try (ResultSet rs = dbMeta.getColumns(catalog, schema, table, null)) {
+                while (rs.next()) {
+                    columns.add(new TableSchema.Column(rs.getString("COLUMN_NAME"), rs.getInt("DATA_TYPE"),
+                            rs.getString("TYPE_NAME"), rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls));
+                }
+            }
+            if (columns.isEmpty()) {
+                throw new IllegalArgumentException("table name=\"" + table + "\" is not valid");
+            }
+            //getPrimaryKeys is ordered by column name, KEY_SEQ gives the order inside the key
+            List<String[]> sequence = new ArrayList<>();
+            try (ResultSet rs = dbMeta.getPrimaryKeys(catalog, schema, table)) {
+                while (rs.next()) {
+                    sequence.add(new String[] { rs.getString("KEY_SEQ"), rs.getString("COLUMN_NAME") });
+                }
+            }
+            sequence.sort((a, b) -> Integer.compare(Integer.parseInt(a[0]), Integer.parseInt(b[0])));
+            for (String[] key : sequence) {
+                keys.add(key[1]);
+            }
+            if (dialect.supportsFullText()) {
+                fullTextIndexes = readFullTextIndexes(connection, table);
+            }
+        }
+        return new TableSchema(catalog, table, columns, keys, fullTextIndexes);
+    }
+
+    //DatabaseMetaData does not tell FULLTEXT indexes apart, MySQL lists them in information_schema
+    private List<List<String>> readFullTextIndexes(Connection connection, String table) throws SQLException {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement("select INDEX_NAME, COLUMN_NAME"
+                + " from information_schema.STATISTICS where TABLE_SCHEMA = ? and TABLE_NAME = ?"
+                + " and INDEX_TYPE = 'FULLTEXT' order by INDEX_NAME, SEQ_IN_INDEX")) {
+            ps.setString(1, catalog);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    indexes.computeIfAbsent(rs.getString(1), name -> new ArrayList<>()).add(rs.getString(2));
+                }
+            }
+        }
+        return new ArrayList<>(indexes.values());
+    }
+
+    //this method is calling search method with not search term
+    public List<List<Object>> getAll(String table) throws SQLException {
+        return search(table, "");
+    }
+
+    public void getAll(String table, RowHandler handler) throws SQLException {
+        search(table, "", handler);
+    }
+
+    public List<List<Object>> search(String table, String searchTerm) throws SQLException {
+        List<List<Object>> list = new ArrayList<>();
+        search(table, searchTerm, list::add);
+        return list;
+    }
+
+    //streaming version of search, every row is passed to handler as soon as it arrives so memory use
+    //does not depend on the size of the table. the connection stays borrowed until the last row is handled.
+    public void search(String table, String searchTerm, RowHandler handler) throws SQLException {
+        search(table, searchTerm, null, handler);
+    }
+
+    //handle can be null, otherwise it can be used to cancel the query from another thread
+    public void search(String table, String searchTerm, QueryHandle handle, RowHandler handler)
+            throws SQLException {
+        Objects.requireNonNull(handler, "handler cannot be null");
+        checkConnectionIsValid();
+        checkTableNameAndColumnAreValid(table);
+        TableSchema schema = getTableSchema(table);
+        SearchQuery query = SearchQuery.of(schema, searchTerm, searchMode);
+        long start;
+        long rows;
+        try (Connection connection = pool.borrow();
+                PreparedStatement ps = prepareSearchStatement(connection, schema, query)) {
+            start = QueryMetrics.start();
+            rows = extractRowsFromResultSet(ps, schema.getColumnNames(), handle, handler);
+        }
+        logIfSlow(schema, query, start, rows);
+    }
+
+    public ResultTable getAllResult(String table) throws SQLException {
+        return searchResult(table, "");
+    }
+
+    //same as search but the rows are stored column by column in a ResultTable
+    public ResultTable searchResult(String table, String searchTerm) throws SQLException {
+        return searchResult(table, searchTerm, null, null);
+    }
+
+    //handle and listener can be null. listener is called every BATCH_SIZE rows on the thread running the query.
+    //a result found in the result cache is returned without a query and passed to listener as one batch.
+    public ResultTable searchResult(String table, String searchTerm, QueryHandle handle, ResultListener listener)
+            throws SQLException {
+        checkConnectionIsValid();
+        checkTableNameAndColumnAreValid(table);
+        searchTerm = ResultCache.normalize(searchTerm);
+        SearchMode mode = searchMode;
+        ResultTable cached = resultCache.get(table, mode, searchTerm);
+        if (cached != null) {
+            if (listener != null && cached.getRowCount() > 0) {
+                listener.rowsAdded(cached, 0, cached.getRowCount());
+            }
+            return cached;
+        }
+        long version = resultCache.getVersion();
+        TableSchema schema = getTableSchema(table);
+        SearchQuery query = SearchQuery.of(schema, searchTerm, mode);
+        long start;
+        ResultTable result;
+        try (Connection connection = pool.borrow();
+                PreparedStatement ps = prepareSearchStatement(connection, schema, query)) {
+            start = QueryMetrics.start();
+            result = readResult(ps, handle, listener);
+        }
+        logIfSlow(schema, query, start, result.getRowCount());
+        resultCache.put(table, mode, searchTerm, result, version);
+        return result;
+    }
+
+    /**
+     * search every table of the catalog at the same time on up to workers pooled connections. listener, if not
+     * null, is called on a worker thread for each table with matching rows as soon as its search finishes.
+     * the search stops when timeBudgetMillis have passed or rowBudget rows were found, running statements are
+     * cancelled and the tables not searched are listed as skipped. tables searched at the same time can each return
+     * up to the rows left when they started, so the budget can be passed by a few tables. the results are not cached.
+     *
+     * @param handle - can be null, otherwise it cancels the whole search
+     */
+    public CatalogSearchResult searchCatalog(String searchTerm, int workers, long timeBudgetMillis, long rowBudget,
+            QueryHandle handle, TableSearchListener listener) throws SQLException {
+        if (workers < 1 || timeBudgetMillis <= 0 || rowBudget <= 0) {
+            throw new IllegalArgumentException("workers=" + workers + ", timeBudgetMillis=" + timeBudgetMillis
+                    + ", rowBudget=" + rowBudget + " must be positive");
+        }
+        checkConnectionIsValid();
+        List<String> tables = getAndInitializeTableNames();
+        CatalogSearchResult summary = new CatalogSearchResult();
+        if (tables.isEmpty()) {
+            return summary;
+        }
+        //more workers than pooled connections would only wait on the pool
+        int threads = Math.min(Math.min(workers, maxPoolSize), tables.size());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "catalog-search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long deadline = System.currentTimeMillis() + timeBudgetMillis;
+        AtomicLong rowsLeft = new AtomicLong(rowBudget);
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<QueryHandle> running = Collections.synchronizedList(new ArrayList<>());
+        for (String table : tables) {
+            executor.execute(() -> searchCatalogTable(table, searchTerm, rowsLeft, stopped, running, summary,
+                    listener));
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(CATALOG_SEARCH_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                boolean cancelled = handle != null && handle.isCancelled();
+                boolean late = System.currentTimeMillis() > deadline;
+                if (cancelled || late || rowsLeft.get() <= 0) {
+                    if (late) {
+                        summary.setTimedOut();
+                    }
+                    stopCatalogSearch(stopped, running);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopCatalogSearch(stopped, running);
+            throw QueryHandle.cancelledException();
+        } finally {
+            executor.shutdownNow();
+        }
+        if (rowsLeft.get() <= 0) {
+            summary.setRowLimitReached();
+        }
+        if (handle != null && handle.isCancelled()) {
+            throw QueryHandle.cancelledException();
+        }
+        return summary;
+    }
+
+    private void stopCatalogSearch(AtomicBoolean stopped, List<QueryHandle> running) {
+        stopped.set(true);
+        synchronized (running) {
+            for (QueryHandle tableHandle : running) {
+                tableHandle.cancel();
+            }
+        }
+    }
+
+    private void searchCatalogTable(String table, String searchTerm, AtomicLong rowsLeft, AtomicBoolean stopped,
+            List<QueryHandle> running, CatalogSearchResult summary, TableSearchListener listener) {
+        long limit = rowsLeft.get();
+        if (stopped.get() || limit <= 0) {
+            summary.skipped(table);
+            return;
+        }
+        QueryHandle tableHandle = new QueryHandle();
+        running.add(tableHandle);
+        try {
+            TableSchema schema = getTableSchema(table);
+            SearchQuery query = SearchQuery.of(schema, searchTerm, searchMode);
+            long start;
+            ResultTable result;
+            try (Connection connection = pool.borrow();
+                    PreparedStatement ps = prepareSearchStatement(connection, schema, query)) {
+                //never read more rows than the whole search may still return
+                ps.setMaxRows((int) Math.min(limit, Integer.MAX_VALUE));
+                start = QueryMetrics.start();
+                result = readResult(ps, tableHandle, null);
+            }
+            logIfSlow(schema, query, start, result.getRowCount());
+            rowsLeft.addAndGet(-result.getRowCount());
+            summary.searched(table, result);
+            if (listener != null && result.getRowCount() > 0) {
+                listener.tableSearched(table, result);
+            }
+        } catch (SQLException e) {
+            if (tableHandle.isCancelled() || stopped.get()) {
+                summary.skipped(table);
+            } else {
+                summary.failed(table, e);
+            }
+        } catch (RuntimeException e) {
+            //for example a table dropped since the names were read
+            summary.failed(table, new SQLException(e.getMessage(), e));
+        } finally {
+            running.remove(tableHandle);
+        }
+    }
+
+    /**
+     * write the rows of a search to file with a header row of column names. rows go straight from the result set to
+     * the file, the result is streamed whatever the fetch size, so tables larger than the heap can be
+     * exported. rows are written to a temporary file next to file which replaces file once the export is complete,
+     * a failed or cancelled export leaves file as it was.
+     *
+     * @param handle - can be null, otherwise it can cancel the export from another thread
+     * @param listener - can be null, called every BATCH_SIZE rows and at the end on the exporting thread
+     * @return number of rows written
+     */
+    public long export(String table, String searchTerm, Path file, ExportFormat format, QueryHandle handle,
+            ExportListener listener) throws SQLException, IOException {
+        Objects.requireNonNull(file, "file cannot be null");
+        Objects.requireNonNull(format, "format cannot be null");
+        checkConnectionIsValid();
+        checkTableNameAndColumnAreValid(table);
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        boolean complete = false;
+        long rows;
+        try (DelimitedWriter writer = DelimitedWriter.open(part, format)) {
+            rows = writeSearch(table, searchTerm, writer, handle, listener);
+            writer.close(true);
+            if (listener != null) {
+                listener.rowsExported(rows, writer.getBytesWritten());
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(part);
+            }
+        }
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+        return rows;
+    }
+
+    /**
+     * write the rows of a search to writer, with a header row of column names, like
+     * {@link #export(String, String, Path, ExportFormat, QueryHandle, ExportListener)} but to a writer the caller
+     * owns, for example one over stdout. writer is flushed and left open, rows already written stay written if the
+     * export fails.
+     *
+     * @return number of rows written
+     */
+    public long export(String table, String searchTerm, DelimitedWriter writer, QueryHandle handle,
+            ExportListener listener) throws SQLException, IOException {
+        Objects.requireNonNull(writer, "writer cannot be null");
+        checkConnectionIsValid();
+        checkTableNameAndColumnAreValid(table);
+        long rows = writeSearch(table, searchTerm, writer, handle, listener);
+        writer.flush();
+        if (listener != null) {
+            listener.rowsExported(rows, writer.getBytesWritten());
+        }
+        return rows;
+    }
+
+    //the search runs on a connection of the export workload and is always streamed
+    private long writeSearch(String table, String searchTerm, DelimitedWriter writer, QueryHandle handle,
+            ExportListener listener) throws SQLException, IOException {
+        TableSchema schema = getTableSchema(table);
+        try (Connection connection = borrow(Workload.EXPORT);
+                PreparedStatement ps = prepareSearchStatement(connection, schema,
+                        SearchQuery.of(schema, searchTerm, searchMode), getDialect(Workload.EXPORT),
+                        STREAMING_FETCH_SIZE)) {
+            return writeRows(ps, writer, handle, listener);
+        }
+    }
+
+    //number of rows written, the header row does not count
+    private long writeRows(PreparedStatement ps, DelimitedWriter writer, QueryHandle handle, ExportListener listener)
+            throws SQLException, IOException {
+        if (handle != null) {
+            handle.start(ps);
+        }
+        boolean executed = false;
+        long queryStart = QueryMetrics.start();
+        try (ResultSet rs = ps.executeQuery()) {
+            metrics.record(Operation.SEARCH, queryStart);
+            executed = true;
+            long extractStart = QueryMetrics.start();
+            ResultSetMetaData meta = rs.getMetaData();
+            int count = meta.getColumnCount();
+            boolean[] binary = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                writer.writeField(meta.getColumnLabel(i + 1));
+                int type = meta.getColumnType(i + 1);
+                binary[i] = type == Types.BINARY || type == Types.VARBINARY || type == Types.LONGVARBINARY
+                        || type == Types.BLOB;
+            }
+            writer.endRow();
+            long rows = 0;
+            while (rs.next()) {
+                if (handle != null && handle.isCancelled()) {
+                    throw QueryHandle.cancelledException();
+                }
+                for (int i = 0; i < count; i++) {
+                    //the text form the database gives, binary values as hex
+                    writer.writeField(binary[i] ? toHex(rs.getBytes(i + 1)) : rs.getString(i + 1));
+                }
+                writer.endRow();
+                if (++rows % BATCH_SIZE == 0 && listener != null) {
+                    listener.rowsExported(rows, writer.getBytesWritten());
+                }
+            }
+            //the bytes still buffered in the writer are not counted
+            metrics.recordFetch(queryStart, extractStart, rows, writer.getBytesWritten());
+            return rows;
+        } catch (SQLException e) {
+            if (handle != null && handle.isCancelled()) {
+                throw QueryHandle.cancelledException();
+            }
+            metrics.recordError(executed ? Operation.EXTRACT : Operation.SEARCH);
+            throw e;
+        } finally {
+            if (handle != null) {
+                handle.finish();
+            }
+        }
+    }
+
+    private static String toHex(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        char[] hex = new char[value.length * 2];
+        for (int i = 0; i < value.length; i++) {
+            hex[i * 2] = Character.forDigit((value[i] >> 4) & 0xF, 16);
+            hex[i * 2 + 1] = Character.forDigit(value[i] & 0xF, 16);
+        }
+        return new String(hex);
+    }
+
+    //the where clause depends on the column types and the search mode, see SearchQuery
+    private PreparedStatement prepareSearchStatement(Connection connection, TableSchema schema, SearchQuery query)
+            throws SQLException {
+        return prepareSearchStatement(connection, schema, query, dialect, fetchSize);
+    }
+
+    //connection comes from the pool of statementDialect, which streams the result in its own way
+    private PreparedStatement prepareSearchStatement(Connection connection, TableSchema schema, SearchQuery query,
+            Dialect statementDialect, int statementFetchSize) throws SQLException {
+        String sql = getSearchSQL(schema, query);
+        PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        try {
+            statementDialect.applyFetchSize(connection, ps, statementFetchSize);
+            query.bind(ps);
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        return ps;
+    }
+
+    private String getSearchSQL(TableSchema schema, SearchQuery query) {
+        String key = schema.getTable() + "|" + query.getShape();
+        List<String> columns = schema.getColumnNames();
+        SearchSQL cached = searchSQLCache.get(key);
+        if (cached == null || !cached.columns.equals(columns)) {
+            cached = new SearchSQL(columns, query.buildSQL(schema.getTable(), columns, dialect));
+            searchSQLCache.put(key, cached);
+        }
+        return cached.sql;
+    }
+
+    //returns the number of rows passed to handler
+    private long extractRowsFromResultSet(PreparedStatement ps, List<String> columns, QueryHandle handle,
+            RowHandler handler) throws SQLException {
+        boolean stopped = false;
+        boolean executed = false;
+        long rows = 0;
+        long bytes = 0;
+        if (handle != null) {
+            handle.start(ps);
+        }
+        long queryStart = QueryMetrics.start();
+        long extractStart = queryStart;
+        try (ResultSet rs = ps.executeQuery()) {
+            metrics.record(Operation.SEARCH, queryStart);
+            executed = true;
+            extractStart = QueryMetrics.start();
+            //labels and types are resolved once, the cells are then read by index with typed getters
+            RowMapper mapper = RowMapper.create(rs, columns);
+            while (rs.next()) {
+                if (handle != null && handle.isCancelled()) {
+                    throw QueryHandle.cancelledException();
+                }
+                List<Object> row = mapper.mapRow(rs);
+                for (Object obj : row) {
+                    bytes += estimateBytes(obj);
+                }
+                rows++;
+                if (!handler.handle(row)) {
+                    stopped = true;
+                    break;
+                }
+            }
+            //on MySQL closing a streaming result reads all the remaining rows, so ask the server to stop first
+            if (stopped && dialect.isCancelledBeforeClose(fetchSize)) {
+                ps.cancel();
+            }
+        } catch (SQLException e) {
+            if (handle != null && handle.isCancelled()) {
+                throw QueryHandle.cancelledException();
+            }
+            //a cancelled query can report the interruption while closing, the rows we wanted are already handled
+            if (!stopped) {
+                metrics.recordError(executed ? Operation.EXTRACT : Operation.SEARCH);
+                throw e;
+            }
+        } finally {
+            if (handle != null) {
+                handle.finish();
+            }
+        }
+        metrics.recordFetch(queryStart, extractStart, rows, bytes);
+        return rows;
+    }
+
+    //hand a search that took the threshold of the slow query log or more to the log, which runs its EXPLAIN
+    private void logIfSlow(TableSchema schema, SearchQuery query, long startNanos, long rows) {
+        SlowQueryLog log = slowQueryLog;
+        if (log != null) {
+            log.log(schema.getTable(), getSearchSQL(schema, query), query.getParameters(),
+                    System.nanoTime() - startNanos, rows, this::explain);
+        }
+    }
+
+    //plan of a search on a connection of its own, a line of column names then one tab separated line per row
+    private List<String> explain(String sql, List<Object> parameters) throws SQLException {
+        checkConnectionIsValid();
+        List<String> plan = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement ps = connection.prepareStatement(dialect.explain(sql))) {
+            for (int i = 0; i < parameters.size(); i++) {
+                ps.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                int count = rs.getMetaData().getColumnCount();
+                StringJoiner line = new StringJoiner("\t");
+                for (int i = 1; i <= count; i++) {
+                    line.add(rs.getMetaData().getColumnLabel(i));
+                }
+                plan.add(line.toString());
+                while (rs.next()) {
+                    line = new StringJoiner("\t");
+                    for (int i = 1; i <= count; i++) {
+                        line.add(String.valueOf(rs.getString(i)));
+                    }
+                    plan.add(line.toString());
+                }
+            }
+        }
+        return plan;
+    }
+
+    //rough size of a value as the database sends it, for the bytes fetched metric
+    private static long estimateBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        return 8;
+    }
+
+    //number of rows in the table
+    public long count(String table) throws SQLException {
+        checkConnectionIsValid();
+        checkTableNameIsValid(table);
+        return measure(Operation.SEARCH, () -> {
+            try (Connection connection = pool.borrow();
+                    PreparedStatement ps = connection.prepareStatement("select count(*) from "
+                            + dialect.quoteIdentifier(table));
+                    ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+    }
+
+    /**
+     * browse the table page by page, onChange is called on the paging thread when new rows are available. keyset
+     * pagination is used on a single column primary key, otherwise OFFSET paging ordered by the row key columns.
+     */
+    public KeysetPager createPager(String table, int pageSize, int maxPages, Runnable onChange)
+            throws SQLException {
+        checkTableNameIsValid(table);
+        TableSchema schema = getTableSchema(table);
+        boolean keyset = schema.getPrimaryKeys().size() == 1;
+        return new KeysetPager(this, table, schema.getRowKeyColumns(), keyset, pageSize, maxPages, onChange);
+    }
+
+    //keyset pagination, the page of rows that come right after afterKey. null afterKey returns the first page.
+    public ResultTable fetchPage(String table, String keyColumn, Object afterKey, int pageSize)
+            throws SQLException {
+        checkPageArguments(table, pageSize);
+        String from = dialect.quoteIdentifier(table);
+        String key = dialect.quoteIdentifier(keyColumn);
+        if (afterKey == null) {
+            return queryResult(dialect.limit("select * from " + from + " order by " + key), pageSize);
+        }
+        return queryResult(dialect.limit("select * from " + from + " where " + key + " > ? order by " + key),
+                afterKey, pageSize);
+    }
+
+    //keyset pagination backwards, the page of rows right before beforeKey still sorted ascending
+    public ResultTable fetchPageBefore(String table, String keyColumn, Object beforeKey, int pageSize)
+            throws SQLException {
+        checkPageArguments(table, pageSize);
+        Objects.requireNonNull(beforeKey, "beforeKey cannot be null");
+        String key = dialect.quoteIdentifier(keyColumn);
+        return queryResult("select * from (" + dialect.limit("select * from " + dialect.quoteIdentifier(table)
+                + " where " + key + " < ? order by " + key + " desc") + ") page order by " + key, beforeKey, pageSize);
+    }
+
+    //only used when no neighbouring key is known, for example when the scroll bar is dragged far away
+    public ResultTable fetchPageAt(String table, String keyColumn, long offset, int pageSize) throws SQLException {
+        return fetchPageAt(table, Collections.singletonList(keyColumn), offset, pageSize);
+    }
+
+    //OFFSET paging ordered by orderColumns, also used for tables without a unique key to page on
+    public ResultTable fetchPageAt(String table, List<String> orderColumns, long offset, int pageSize)
+            throws SQLException {
+        checkPageArguments(table, pageSize);
+        StringJoiner order = new StringJoiner(", ", " order by ", "");
+        for (String column : orderColumns) {
+            order.add(dialect.quoteIdentifier(column));
+        }
+        return queryResult(dialect.limitOffset("select * from " + dialect.quoteIdentifier(table) + order), pageSize,
+                offset);
+    }
+
+    private void checkPageArguments(String table, int pageSize) throws SQLException {
+        checkConnectionIsValid();
+        checkTableNameIsValid(table);
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("page size=" + pageSize + " is not valid");
+        }
+    }
+
+    //unlike checkTableNameAndColumnAreValid this does not touch the cached column names,
+    //so it is safe to call from the background paging thread
+    private void checkTableNameIsValid(String table) throws SQLException {
+        Objects.requireNonNull(table, "table name cannot be null");
+        if (tableNames.isEmpty()) {
+            getAndInitializeTableNames();
+        }
+        if (!tableNames.contains(table)) {
+            throw new IllegalArgumentException("table name=\"" + table + "\" is not valid");
+        }
+    }
+
+    private ResultTable queryResult(String sql, Object... parameters) throws SQLException {
+        try (Connection connection = pool.borrow();
+                PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setObject(i + 1, parameters[i]);
+            }
+            return readResult(ps, null, null);
+        }
+    }
+
+    private ResultTable readResult(PreparedStatement ps, QueryHandle handle, ResultListener listener)
+            throws SQLException {
+        if (handle != null) {
+            handle.start(ps);
+        }
+        boolean executed = false;
+        long queryStart = QueryMetrics.start();
+        try (ResultSet rs = ps.executeQuery()) {
+            metrics.record(Operation.SEARCH, queryStart);
+            executed = true;
+            long extractStart = QueryMetrics.start();
+            ResultTable result = new ResultTable(rs.getMetaData());
+            int reported = 0;
+            while (rs.next()) {
+                if (handle != null && handle.isCancelled()) {
+                    throw QueryHandle.cancelledException();
+                }
+                result.appendRow(rs);
+                if (listener != null && result.getRowCount() - reported == BATCH_SIZE) {
+                    listener.rowsAdded(result, reported, result.getRowCount());
+                    reported = result.getRowCount();
+                }
+            }
+            if (listener != null && result.getRowCount() > reported) {
+                listener.rowsAdded(result, reported, result.getRowCount());
+            }
+            metrics.recordFetch(queryStart, extractStart, result.getRowCount(), result.estimateBytes());
+            return result;
+        } catch (SQLException e) {
+            //the driver reports a cancelled statement in its own words
+            if (handle != null && handle.isCancelled()) {
+                throw QueryHandle.cancelledException();
+            }
+            metrics.recordError(executed ? Operation.EXTRACT : Operation.SEARCH);
+            throw e;
+        } finally {
+            if (handle != null) {
+                handle.finish();
+            }
+        }
+    }
+
+    //update one cell, the row is found by the value of its primary key. tables without a single column primary key
+    //are refused, the first column alone could match and overwrite many rows
+    public void update(String table, String keyValue, String col, String newValue) throws SQLException {
+        checkConnectionIsValid();
+        checkTableNameIsValid(table);
+        List<String> primaryKeys = getTableSchema(table).getPrimaryKeys();
+        if (primaryKeys.size() != 1) {
+            throw new IllegalArgumentException("table name=\"" + table
+                    + "\" has no single column primary key to find the row, primary key=" + primaryKeys);
+        }
+        EditBuffer buffer = new EditBuffer(table, primaryKeys);
+        buffer.put(Collections.singletonList(keyValue), col, newValue);
+        applyEdits(buffer);
+    }
+
+    //empty edit buffer keyed by the primary key of the table. tables without a primary key are refused, nothing
+    //else is sure to find a single row
+    public EditBuffer createEditBuffer(String table) throws SQLException {
+        checkConnectionIsValid();
+        checkTableNameIsValid(table);
+        List<String> primaryKeys = getTableSchema(table).getPrimaryKeys();
+        if (primaryKeys.isEmpty()) {
+            throw new IllegalArgumentException("table name=\"" + table
+                    + "\" has no primary key to find the edited rows");
+        }
+        return new EditBuffer(table, primaryKeys);
+    }
+
+    /**
+     * write all pending edits of the buffer in one transaction. edits of the same column share one parameterized
+     * statement sent with executeBatch, and the written edits are removed from the buffer once committed. every edit
+     * must update exactly one row, otherwise the whole transaction is rolled back.
+     *
+     * @return number of updated rows
+     * @throws SQLException if the database fails or the key values of an edit do not match exactly one row
+     */
+    public int applyEdits(EditBuffer buffer) throws SQLException {
+        checkConnectionIsValid();
+        String table = buffer.getTable();
+        checkTableNameIsValid(table);
+        TableSchema schema = getTableSchema(table);
+        List<EditBuffer.CellEdit> edits = buffer.getEdits();
+        if (edits.isEmpty()) {
+            return 0;
+        }
+        //column names end up in the SQL, so only accept the ones the table really has
+        for (String key : buffer.getKeyColumns()) {
+            checkColumnIsValid(schema, key);
+        }
+        Map<String, List<EditBuffer.CellEdit>> byColumn = new LinkedHashMap<>();
+        for (EditBuffer.CellEdit edit : edits) {
+            checkColumnIsValid(schema, edit.getColumn());
+            byColumn.computeIfAbsent(edit.getColumn(), c -> new ArrayList<>()).add(edit);
+        }
+        //only a primary key is sure to match at most one row, any other key columns must report what they matched
+        boolean primaryKey = new HashSet<>(buffer.getKeyColumns()).equals(new HashSet<>(schema.getPrimaryKeys()));
+        int updated = 0;
+        long start = QueryMetrics.start();
+        try (Connection connection = borrow(Workload.EDIT)) {
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<EditBuffer.CellEdit>> column : byColumn.entrySet()) {
+                    updated += executeUpdateBatch(connection, table, buffer.getKeyColumns(), primaryKey,
+                            column.getKey(), column.getValue());
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                resultCache.invalidate(table);
+            }
+        } catch (SQLException | RuntimeException e) {
+            metrics.recordError(Operation.UPDATE);
+            throw e;
+        }
+        metrics.recordUpdate(start, updated);
+        buffer.removeAll(edits);
+        return updated;
+    }
+
+    private int executeUpdateBatch(Connection connection, String table, List<String> keyColumns, boolean primaryKey,
+            String column, List<EditBuffer.CellEdit> edits) throws SQLException {
+        StringBuilder updateQuery = new StringBuilder("update ");
+        updateQuery.append(dialect.quoteIdentifier(table));
+        updateQuery.append(" set ");
+        updateQuery.append(dialect.quoteIdentifier(column));
+        updateQuery.append(" = ? where ");
+        for (String key : keyColumns) {
+            updateQuery.append(dialect.quoteIdentifier(key));
+            updateQuery.append(" = ? and ");
+        }
+        updateQuery.setLength(updateQuery.length() - 5);
+        try (PreparedStatement ps = connection.prepareStatement(updateQuery.toString())) {
+            for (EditBuffer.CellEdit edit : edits) {
+                ps.setObject(1, edit.getValue());
+                List<Object> keyValues = edit.getKeyValues();
+                for (int i = 0; i < keyValues.size(); i++) {
+                    ps.setObject(i + 2, keyValues.get(i));
+                }
+                ps.addBatch();
+            }
+            int[] counts = ps.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                //drivers that rewrite the batch into one statement only know that it succeeded, which is enough
+                //when the primary key found the row
+                if (counts[i] == 1 || counts[i] == Statement.SUCCESS_NO_INFO && primaryKey) {
+                    continue;
+                }
+                throw new SQLException("update of column " + column + " in table " + table + " matched "
+                        + (counts[i] == Statement.SUCCESS_NO_INFO ? "an unknown number of" : counts[i])
+                        + " rows, key " + keyColumns + "=" + edits.get(i).getKeyValues() + " must match exactly 1");
+            }
+            return counts.length;
+        }
+    }
+
+    private void checkColumnIsValid(TableSchema schema, String column) {
+        if (!schema.getColumnNames().contains(column)) {
+            throw new IllegalArgumentException("column name=\"" + column + "\" is not valid for table "
+                    + schema.getTable());
+        }
+    }
+
+    public void close() throws SQLException {
+        for (ConnectionPool workloadPool : workloadPools.values()) {
+            workloadPool.close();
+        }
+        workloadPools.clear();
+        workloadDialects.clear();
+        if (isConnected()) {
+            pool.close();
+        }
+    }
+
+    /**
+     * search SQL of a table and the columns it was built from.
+     */
+    private static final class SearchSQL {
+        private final List<String> columns;
+        private final String sql;
+
+        private SearchSQL(List<String> columns, String sql) {
+            this.columns = columns;
+            this.sql = sql;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package jdbc;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * KeysetPager class
+ * Gives access to a whole table by row index while only keeping a bounded window of pages in memory. pages are read
+ * with keyset pagination on the key column, starting from the boundary key of a neighbouring page, and the pages
+ * next to the one being read are prefetched on a background thread.
+ *
+ * keyset pagination needs a unique key, otherwise rows sharing a key on a page boundary can be skipped. tables
+ * without a single column primary key are read with OFFSET paging instead, ordered by the key columns.
+ *
+ * @author Juan Ni
+ *
+ */
+public class KeysetPager implements AutoCloseable {
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int DEFAULT_MAX_PAGES = 16;
+
+    private final JDBCModel model;
+    private final String table;
+    private final List<String> keyColumns;
+    private final boolean keyset;
+    private final int pageSize;
+    //pending loads further than this from the last page asked for are dropped
+    private final int window;
+    private final Runnable onChange;
+    private final ExecutorService worker;
+
+    //pages in access order, the least recently used page is dropped when there are more than maxPages
+    private final Map<Integer, ResultTable> pages;
+    private final Set<Integer> loading;
+    //boundary keys of every page read so far, used to start the neighbouring pages
+    private final Map<Integer, Object> firstKeys;
+    private final Map<Integer, Object> lastKeys;
+    private int lastPage;
+    private volatile long rowCount = -1;
+    private volatile boolean closed;
+
+    /**
+     * @param keyColumns - columns the rows are sorted on
+     * @param keyset - true if keyColumns is a single unique column, false to use OFFSET paging
+     * @param onChange - called on the background thread whenever a page or the row count is loaded
+     */
+    KeysetPager(JDBCModel model, String table, List<String> keyColumns, boolean keyset, int pageSize, int maxPages,
+            Runnable onChange) {
+        if (pageSize <= 0 || maxPages < 3 || keyColumns.isEmpty() || (keyset && keyColumns.size() != 1)) {
+            throw new IllegalArgumentException("pageSize=" + pageSize + ", maxPages=" + maxPages + ", keyColumns="
+                    + keyColumns + ", keyset=" + keyset + " are not valid");
+        }
+        this.model = model;
+        this.table = table;
+        this.keyColumns = keyColumns;
+        this.keyset = keyset;
+        this.pageSize = pageSize;
+        this.onChange = onChange;
+        window = maxPages / 2;
+        pages = new LinkedHashMap<>(maxPages + 1, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ResultTable> eldest) {
+                if (size() <= maxPages) {
+                    return false;
+                }
+                //the boundary keys go with their page, so they do not pile up while scrolling a large table
+                firstKeys.remove(eldest.getKey());
+                lastKeys.remove(eldest.getKey());
+                return true;
+            }
+        };
+        loading = new HashSet<>();
+        firstKeys = new HashMap<>();
+        lastKeys = new HashMap<>();
+        worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "keyset-pager-" + table);
+            thread.setDaemon(true);
+            return thread;
+        });
+        //the first page is read before counting, so it shows up without waiting for count(*)
+        request(0);
+        worker.execute(() -> {
+            try {
+                rowCount = model.count(table);
+                fireChange();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    //false when the table has no single column primary key and pages are read with OFFSET
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * number of rows that can be asked for. until the count is known it is the size of the first page.
+     */
+    public synchronized int getRowCount() {
+        if (rowCount >= 0) {
+            return (int) Math.min(rowCount, Integer.MAX_VALUE);
+        }
+        ResultTable first = pages.get(0);
+        return first == null ? 0 : first.getRowCount();
+    }
+
+    /**
+     * return the row if its page is in memory, otherwise start reading the page and return null. the pages before
+     * and after are prefetched either way.
+     */
+    public synchronized ResultTable.Row getRow(int index) {
+        int page = index / pageSize;
+        lastPage = page;
+        ResultTable result = pages.get(page);
+        request(page);
+        request(page + 1);
+        if (page > 0) {
+            request(page - 1);
+        }
+        int row = index - page * pageSize;
+        return result == null || row >= result.getRowCount() ? null : result.row(row);
+    }
+
+    /**
+     * return the row, reading its page on the calling thread if it is not in memory. for background work over many
+     * rows, like copying a selection, it does not move the prefetch window of the viewport. null if the table has
+     * fewer rows now.
+     */
+    public ResultTable.Row readRow(int index) throws SQLException {
+        int page = index / pageSize;
+        ResultTable result;
+        synchronized (this) {
+            result = pages.get(page);
+        }
+        if (result == null) {
+            result = read(page);
+        }
+        int row = index - page * pageSize;
+        return row >= result.getRowCount() ? null : result.row(row);
+    }
+
+    private synchronized void request(int page) {
+        if (closed || pages.containsKey(page) || loading.contains(page)) {
+            return;
+        }
+        if (rowCount >= 0 && (long) page * pageSize >= rowCount) {
+            return;
+        }
+        loading.add(page);
+        worker.execute(() -> load(page));
+    }
+
+    private void load(int page) {
+        try {
+            synchronized (this) {
+                //the viewport moved on while the load was queued, it is requested again if it comes back
+                if (closed || Math.abs(page - lastPage) > window) {
+                    return;
+                }
+            }
+            read(page);
+            fireChange();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (this) {
+                loading.remove(page);
+            }
+        }
+    }
+
+    //read the page from the database and keep it, the query runs without holding the lock
+    private ResultTable read(int page) throws SQLException {
+        Object after;
+        Object before;
+        synchronized (this) {
+            after = lastKeys.get(page - 1);
+            before = firstKeys.get(page + 1);
+        }
+        ResultTable result;
+        if (!keyset) {
+            result = model.fetchPageAt(table, keyColumns, (long) page * pageSize, pageSize);
+        } else if (page == 0) {
+            result = model.fetchPage(table, keyColumns.get(0), null, pageSize);
+        } else if (after != null) {
+            result = model.fetchPage(table, keyColumns.get(0), after, pageSize);
+        } else if (before != null) {
+            result = model.fetchPageBefore(table, keyColumns.get(0), before, pageSize);
+        } else {
+            result = model.fetchPageAt(table, keyColumns, (long) page * pageSize, pageSize);
+        }
+        synchronized (this) {
+            if (keyset && result.getRowCount() > 0) {
+                int key = result.getColumnIndex(keyColumns.get(0));
+                firstKeys.put(page, result.getObject(0, key));
+                lastKeys.put(page, result.getObject(result.getRowCount() - 1, key));
+            }
+            pages.put(page, result);
+        }
+        return result;
+    }
+
+    //pages in memory, for tests
+    synchronized Set<Integer> getLoadedPages() {
+        return new HashSet<>(pages.keySet());
+    }
+
+    //pages whose boundary keys are kept, for tests
+    synchronized Set<Integer> getBoundaryKeyPages() {
+        Set<Integer> keyPages = new HashSet<>(firstKeys.keySet());
+        keyPages.addAll(lastKeys.keySet());
+        return keyPages;
+    }
+
+    private void fireChange() {
+        if (!closed && onChange != null) {
+            onChange.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        worker.shutdownNow();
+    }
+}
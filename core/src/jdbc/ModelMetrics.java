@@ -0,0 +1,120 @@
+package jdbc;
+
+import jdbc.metrics.ModelMetricsMXBean;
+import jdbc.metrics.QueryMetrics;
+import jdbc.metrics.QuerySummary;
+import jdbc.pool.ConnectionPool;
+
+/**
+ * ModelMetrics class
+ * The totals of a {@link JDBCModel} published over JMX, read live from its metrics, pool and result cache.
+ *
+ * @author Juan Ni
+ *
+ */
+final class ModelMetrics implements ModelMetricsMXBean {
+    private final JDBCModel model;
+
+    ModelMetrics(JDBCModel model) {
+        this.model = model;
+    }
+
+    //null while the model is not connected
+    private ConnectionPool pool() {
+        ConnectionPool pool = model.getPool();
+        return pool == null || pool.isClosed() ? null : pool;
+    }
+
+    @Override
+    public long getRowsFetched() {
+        return model.getMetrics().getRowsFetched();
+    }
+
+    @Override
+    public long getBytesFetched() {
+        return model.getMetrics().getBytesFetched();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return model.getMetrics().getErrorCount();
+    }
+
+    @Override
+    public String getLastQuery() {
+        QuerySummary last = model.getMetrics().getLastQuery();
+        return last == null ? "" : last.toString();
+    }
+
+    @Override
+    public int getPoolTotalCount() {
+        ConnectionPool pool = pool();
+        return pool == null ? 0 : pool.getTotalCount();
+    }
+
+    @Override
+    public int getPoolIdleCount() {
+        ConnectionPool pool = pool();
+        return pool == null ? 0 : pool.getIdleCount();
+    }
+
+    @Override
+    public int getPoolActiveCount() {
+        ConnectionPool pool = pool();
+        return pool == null ? 0 : pool.getActiveCount();
+    }
+
+    @Override
+    public long getPoolLeakCount() {
+        ConnectionPool pool = pool();
+        return pool == null ? 0 : pool.getLeakCount();
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+        ConnectionPool pool = pool();
+        return pool == null ? 0 : pool.getStatementCacheHits();
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        ConnectionPool pool = pool();
+        return pool == null ? 0 : pool.getStatementCacheMisses();
+    }
+
+    @Override
+    public long getStatementCloseErrors() {
+        ConnectionPool pool = pool();
+        return pool == null ? 0 : pool.getStatementCloseErrors();
+    }
+
+    @Override
+    public long getResultCacheHits() {
+        return model.getResultCache().getHits();
+    }
+
+    @Override
+    public long getResultCacheMisses() {
+        return model.getResultCache().getMisses();
+    }
+
+    @Override
+    public long getResultCacheEvictions() {
+        return model.getResultCache().getEvictions();
+    }
+
+    @Override
+    public int getResultCacheSize() {
+        return model.getResultCache().getSize();
+    }
+
+    @Override
+    public long getResultCacheBytes() {
+        return model.getResultCache().getBytes();
+    }
+
+    @Override
+    public void reset() {
+        model.getMetrics().reset();
+    }
+}
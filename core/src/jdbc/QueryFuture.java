@@ -0,0 +1,30 @@
+package jdbc;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * QueryFuture class
+ * Result of an asynchronous query of {@link JDBCController}. cancelling the future also cancels the statement
+ * running on the database.
+ * 
+ * @author Juan Ni
+ *
+ * @param <T> type of the result
+ */
+public class QueryFuture<T> extends CompletableFuture<T> {
+    private final QueryHandle handle;
+
+    QueryFuture(QueryHandle handle) {
+        this.handle = handle;
+    }
+
+    QueryHandle getHandle() {
+        return handle;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        handle.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+}
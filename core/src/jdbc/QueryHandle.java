@@ -0,0 +1,59 @@
+package jdbc;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * QueryHandle class
+ * Lets another thread cancel a running query. the model registers the statement it is executing and
+ * {@link #cancel()} calls {@link Statement#cancel()} on it, so the database stops working on the query instead of
+ * the result simply being ignored.
+ * 
+ * @author Juan Ni
+ *
+ */
+public class QueryHandle {
+    /**
+     * SQL state used by the standard for a cancelled statement
+     */
+    public static final String CANCELLED_STATE = "57014";
+
+    private volatile boolean cancelled;
+    private Statement statement;
+
+    public synchronized void cancel() {
+        cancelled = true;
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    //register the statement about to be executed, fails right away if the query was already cancelled
+    synchronized void start(Statement statement) throws SQLException {
+        if (cancelled) {
+            throw cancelledException();
+        }
+        this.statement = statement;
+    }
+
+    //must be called before the statement is closed, it can go back to a cache and be used by another query
+    synchronized void finish() {
+        statement = null;
+    }
+
+    static SQLException cancelledException() {
+        return new SQLException("query was cancelled", CANCELLED_STATE);
+    }
+
+    public static boolean isCancellation(Throwable e) {
+        return e instanceof SQLException && CANCELLED_STATE.equals(((SQLException) e).getSQLState());
+    }
+}
@@ -0,0 +1,169 @@
+package jdbc;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ResultCache class
+ * Least recently used cache of complete search results keyed by table, search mode and search term. it is bounded
+ * both by the number of results and by their estimated size in bytes, and all results of a table are dropped when
+ * the table is written to through the model.
+ *
+ * cached results are shared, they must never be modified.
+ *
+ * @author Juan Ni
+ *
+ */
+public class ResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final LinkedHashMap<Key, ResultTable> results;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    //increased by every invalidation, a result read while the data changed is not stored
+    private long version;
+
+    public ResultCache() {
+        results = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    //0 entries or 0 bytes turns the cache off
+    public synchronized void setLimits(int maxEntries, long maxBytes) {
+        if (maxEntries < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("maxEntries=" + maxEntries + ", maxBytes=" + maxBytes
+                    + " cannot be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    //surrounding white space is ignored and a null term is the same as an empty one
+    static String normalize(String searchTerm) {
+        return searchTerm == null ? "" : searchTerm.trim();
+    }
+
+    public ResultTable get(String table, String searchTerm) {
+        return get(table, SearchMode.LIKE, searchTerm);
+    }
+
+    public synchronized ResultTable get(String table, SearchMode mode, String searchTerm) {
+        ResultTable result = results.get(new Key(table, mode, normalize(searchTerm)));
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    //take the version before running a query and pass it to put
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    //results bigger than the byte budget, or read while a table was invalidated, are not kept
+    public void put(String table, String searchTerm, ResultTable result, long version) {
+        put(table, SearchMode.LIKE, searchTerm, result, version);
+    }
+
+    public synchronized void put(String table, SearchMode mode, String searchTerm, ResultTable result,
+            long version) {
+        long size = result.estimateBytes();
+        if (maxEntries == 0 || size > maxBytes || version != this.version) {
+            return;
+        }
+        ResultTable old = results.put(new Key(table, mode, normalize(searchTerm)), result);
+        if (old != null) {
+            bytes -= old.estimateBytes();
+        }
+        bytes += size;
+        evict();
+    }
+
+    public synchronized void invalidate(String table) {
+        version++;
+        Iterator<Map.Entry<Key, ResultTable>> it = results.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, ResultTable> entry = it.next();
+            if (entry.getKey().table.equals(table)) {
+                bytes -= entry.getValue().estimateBytes();
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        results.clear();
+        bytes = 0;
+    }
+
+    private void evict() {
+        Iterator<ResultTable> it = results.values().iterator();
+        while (it.hasNext() && (results.size() > maxEntries || bytes > maxBytes)) {
+            bytes -= it.next().estimateBytes();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getSize() {
+        return results.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResultCache[entries=" + results.size() + ", bytes=" + bytes + ", hits=" + hits + ", misses="
+                + misses + ", evictions=" + evictions + "]";
+    }
+
+    private static final class Key {
+        private final String table;
+        private final SearchMode mode;
+        private final String term;
+
+        private Key(String table, SearchMode mode, String term) {
+            this.table = table;
+            this.mode = Objects.requireNonNull(mode, "search mode cannot be null");
+            this.term = term;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return table.equals(other.table) && mode == other.mode && term.equals(other.term);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(table, mode, term);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package jdbc;
+
+/**
+ * ResultListener interface
+ * Told about the rows of a {@link ResultTable} while the query is still reading them, one batch at a time.
+ * 
+ * @author Juan Ni
+ *
+ */
+@FunctionalInterface
+public interface ResultListener {
+
+    /**
+     * rows from index from (inclusive) to index to (exclusive) have been added to result.
+     */
+    void rowsAdded(ResultTable result, int from, int to);
+}
@@ -0,0 +1,493 @@
+package jdbc;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ResultTable class
+ * Column oriented holder for the result of a query. Numeric and date columns are kept in primitive arrays and text
+ * columns share one char array per column, so no object is created per cell.
+ *
+ * rows are only ever appended by the thread reading the ResultSet and the row count is published after each row, so
+ * other threads can read every row below {@link #getRowCount()} while the result is still being filled.
+ *
+ * @author Juan Ni
+ *
+ */
+public class ResultTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String[] columnNames;
+    private final Column[] columns;
+    private volatile int rowCount;
+
+    ResultTable(ResultSetMetaData meta) throws SQLException {
+        int count = meta.getColumnCount();
+        columnNames = new String[count];
+        columns = new Column[count];
+        for (int i = 0; i < count; i++) {
+            columnNames[i] = meta.getColumnLabel(i + 1);
+            columns[i] = createColumn(meta.getColumnClassName(i + 1));
+        }
+    }
+
+    //the kind of storage is picked from the class getObject would return, so getObject gives back the same type
+    private static Column createColumn(String className) {
+        if (className == null) {
+            return new ObjectColumn();
+        }
+        switch (className) {
+            case "java.lang.Long":
+            case "java.lang.Integer":
+            case "java.lang.Short":
+            case "java.lang.Byte":
+                return new LongColumn(className);
+            case "java.lang.Double":
+            case "java.lang.Float":
+                return new DoubleColumn(className);
+            case "java.sql.Date":
+            case "java.sql.Time":
+            case "java.sql.Timestamp":
+                return new TemporalColumn(className);
+            case "java.lang.String":
+                return new StringColumn();
+            default:
+                return new ObjectColumn();
+        }
+    }
+
+    //read the current row of rs and append it, columns are read by index with the typed getters
+    void appendRow(ResultSet rs) throws SQLException {
+        int row = rowCount;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].read(rs, i + 1, row);
+        }
+        rowCount = row + 1;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String getColumnName(int col) {
+        return columnNames[col];
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(Arrays.asList(columnNames));
+    }
+
+    //return the index of the column with the given name ignoring case, or -1 if there is none
+    public int getColumnIndex(String name) {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //true if the column holds character data, the columns a like search looks at
+    public boolean isText(int col) {
+        return columns[col] instanceof StringColumn;
+    }
+
+    //case insensitive substring test on a text column without copying the cell, false for a null cell
+    boolean textContains(int row, int col, String term) {
+        StringColumn column = (StringColumn) columns[col];
+        return !column.nulls.get(row) && column.contains(row, term);
+    }
+
+    public boolean isNull(int row, int col) {
+        checkRow(row);
+        return columns[col].nulls.get(row);
+    }
+
+    /**
+     * value of an integer column, or milliseconds since epoch for a date column.
+     *
+     * @throws IllegalStateException if the column is not integer or date
+     */
+    public long getLong(int row, int col) {
+        checkRow(row);
+        return columns[col].getLong(row, columnNames[col]);
+    }
+
+    /**
+     * value of a numeric column.
+     *
+     * @throws IllegalStateException if the column is not numeric
+     */
+    public double getDouble(int row, int col) {
+        checkRow(row);
+        return columns[col].getDouble(row, columnNames[col]);
+    }
+
+    //text form of any cell, null if the cell is null
+    public String getString(int row, int col) {
+        checkRow(row);
+        Column column = columns[col];
+        return column.nulls.get(row) ? null : column.getString(row);
+    }
+
+    //boxed value of the cell, same type as ResultSet.getObject would return
+    public Object getObject(int row, int col) {
+        checkRow(row);
+        Column column = columns[col];
+        return column.nulls.get(row) ? null : column.getObject(row);
+    }
+
+    //copy of one row as a list, only meant for callers that still work with rows of objects
+    public List<Object> getRow(int row) {
+        List<Object> list = new ArrayList<>(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            list.add(getObject(row, i));
+        }
+        return list;
+    }
+
+    public Row row(int row) {
+        checkRow(row);
+        return new Row(this, row);
+    }
+
+    //approximate number of bytes held by the column arrays
+    public long estimateBytes() {
+        long bytes = 0;
+        for (Column column : columns) {
+            bytes += column.estimateBytes() + column.nulls.size() / 8;
+        }
+        return bytes;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("row=" + row + ", rowCount=" + rowCount);
+        }
+    }
+
+    private static int grow(int length, int needed) {
+        return Math.max(needed, Math.max(INITIAL_CAPACITY, length + (length >> 1)));
+    }
+
+    /**
+     * light view of one row, used as the item of the TableView. it does not copy any value.
+     */
+    public static final class Row {
+        private final ResultTable table;
+        private final int index;
+
+        private Row(ResultTable table, int index) {
+            this.table = table;
+            this.index = index;
+        }
+
+        public ResultTable getTable() {
+            return table;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isNull(int col) {
+            return table.isNull(index, col);
+        }
+
+        public long getLong(int col) {
+            return table.getLong(index, col);
+        }
+
+        public double getDouble(int col) {
+            return table.getDouble(index, col);
+        }
+
+        public String getString(int col) {
+            return table.getString(index, col);
+        }
+
+        public Object getObject(int col) {
+            return table.getObject(index, col);
+        }
+    }
+
+    private abstract static class Column {
+        final BitSet nulls = new BitSet();
+
+        abstract void read(ResultSet rs, int index, int row) throws SQLException;
+
+        abstract Object getObject(int row);
+
+        abstract long estimateBytes();
+
+        String getString(int row) {
+            return String.valueOf(getObject(row));
+        }
+
+        long getLong(int row, String name) {
+            throw new IllegalStateException("column " + name + " is not an integer or date column");
+        }
+
+        double getDouble(int row, String name) {
+            throw new IllegalStateException("column " + name + " is not a numeric column");
+        }
+    }
+
+    private static final class LongColumn extends Column {
+        private final String className;
+        private long[] values = new long[0];
+
+        LongColumn(String className) {
+            this.className = className;
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row + 1));
+            }
+            values[row] = rs.getLong(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object getObject(int row) {
+            long value = values[row];
+            switch (className) {
+                case "java.lang.Integer":
+                    return (int) value;
+                case "java.lang.Short":
+                    return (short) value;
+                case "java.lang.Byte":
+                    return (byte) value;
+                default:
+                    return value;
+            }
+        }
+
+        @Override
+        String getString(int row) {
+            return Long.toString(values[row]);
+        }
+
+        @Override
+        long getLong(int row, String name) {
+            return values[row];
+        }
+
+        @Override
+        double getDouble(int row, String name) {
+            return values[row];
+        }
+
+        @Override
+        long estimateBytes() {
+            return values.length * 8L;
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        private final boolean isFloat;
+        private double[] values = new double[0];
+
+        DoubleColumn(String className) {
+            isFloat = "java.lang.Float".equals(className);
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row + 1));
+            }
+            values[row] = rs.getDouble(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object getObject(int row) {
+            return isFloat ? (Object) (float) values[row] : (Object) values[row];
+        }
+
+        @Override
+        double getDouble(int row, String name) {
+            return values[row];
+        }
+
+        @Override
+        long estimateBytes() {
+            return values.length * 8L;
+        }
+    }
+
+    //dates and times are kept as milliseconds since epoch, timestamps also keep their nanoseconds
+    private static final class TemporalColumn extends Column {
+        private final String className;
+        private long[] millis = new long[0];
+        private int[] nanos;
+
+        TemporalColumn(String className) {
+            this.className = className;
+            if ("java.sql.Timestamp".equals(className)) {
+                nanos = new int[0];
+            }
+        }
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == millis.length) {
+                millis = Arrays.copyOf(millis, grow(millis.length, row + 1));
+                if (nanos != null) {
+                    nanos = Arrays.copyOf(nanos, millis.length);
+                }
+            }
+            java.util.Date value;
+            switch (className) {
+                case "java.sql.Date":
+                    value = rs.getDate(index);
+                    break;
+                case "java.sql.Time":
+                    value = rs.getTime(index);
+                    break;
+                default:
+                    Timestamp timestamp = rs.getTimestamp(index);
+                    if (timestamp != null) {
+                        nanos[row] = timestamp.getNanos();
+                    }
+                    value = timestamp;
+            }
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                millis[row] = value.getTime();
+            }
+        }
+
+        @Override
+        Object getObject(int row) {
+            switch (className) {
+                case "java.sql.Date":
+                    return new Date(millis[row]);
+                case "java.sql.Time":
+                    return new Time(millis[row]);
+                default:
+                    Timestamp timestamp = new Timestamp(millis[row]);
+                    timestamp.setNanos(nanos[row]);
+                    return timestamp;
+            }
+        }
+
+        @Override
+        long getLong(int row, String name) {
+            return millis[row];
+        }
+
+        @Override
+        long estimateBytes() {
+            return millis.length * 8L + (nanos == null ? 0 : nanos.length * 4L);
+        }
+    }
+
+    //all strings of the column are stored back to back in one char array, offsets[row] is where a row starts
+    private static final class StringColumn extends Column {
+        private char[] chars = new char[0];
+        private int[] offsets = new int[1];
+        private int length;
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            String value = rs.getString(index);
+            if (row + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, grow(offsets.length, row + 2));
+            }
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                if (length + value.length() > chars.length) {
+                    chars = Arrays.copyOf(chars, grow(chars.length, length + value.length()));
+                }
+                value.getChars(0, value.length(), chars, length);
+                length += value.length();
+            }
+            offsets[row + 1] = length;
+        }
+
+        @Override
+        Object getObject(int row) {
+            return getString(row);
+        }
+
+        @Override
+        String getString(int row) {
+            return new String(chars, offsets[row], offsets[row + 1] - offsets[row]);
+        }
+
+        boolean contains(int row, String term) {
+            int n = term.length();
+            search:
+            for (int i = offsets[row]; i + n <= offsets[row + 1]; i++) {
+                for (int j = 0; j < n; j++) {
+                    char a = chars[i + j];
+                    char b = term.charAt(j);
+                    if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)
+                            && Character.toUpperCase(a) != Character.toUpperCase(b)) {
+                        continue search;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        long estimateBytes() {
+            return chars.length * 2L + offsets.length * 4L;
+        }
+    }
+
+    //anything without a compact form, such as decimals and blobs, is kept as returned by the driver
+    private static final class ObjectColumn extends Column {
+        private Object[] values = new Object[0];
+        private long bytes;
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row + 1));
+            }
+            Object value = rs.getObject(index);
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                values[row] = value;
+                bytes += value instanceof byte[] ? ((byte[]) value).length + 16 : 32;
+            }
+        }
+
+        @Override
+        Object getObject(int row) {
+            return values[row];
+        }
+
+        @Override
+        long estimateBytes() {
+            return values.length * 8L + bytes;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package jdbc;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * RowHandler interface
+ * Callback used by the streaming search methods of {@link JDBCModel}. Each row is handed over as soon as it is read
+ * from the ResultSet instead of being collected in memory first.
+ * 
+ * @author Juan Ni
+ *
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+    /**
+     * handle one row of the result.
+     * 
+     * @param row - values of the row in column order
+     * @return true to keep reading, false to stop the query early
+     * @throws SQLException if the row cannot be handled
+     */
+    boolean handle(List<Object> row) throws SQLException;
+}
@@ -0,0 +1,227 @@
+package jdbc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RowIndex class
+ * In memory trigram index over the text columns of a {@link ResultTable}, used to search rows that are already loaded
+ * without a round trip to the database. rows are added while they stream in, each lower case trigram of a cell points
+ * to the rows containing it, and a search checks only the rows that contain every trigram of the term.
+ *
+ * matching follows a {@link SearchMode#LIKE} search: case insensitive substring on the text columns, so the index
+ * only gives the rows of the database where {@link jdbc.dialect.Dialect#isLikeCaseInsensitive()}. terms that are
+ * numbers, dates or contain like wildcards are also matched differently by the database, for those
+ * {@link #search(String)} returns null and the database has to be asked. the index turns itself off when it grows
+ * past its memory budget.
+ *
+ * @author Juan Ni
+ *
+ */
+public class RowIndex {
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private static final int GRAM = 3;
+    //rough size of a HashMap node with its boxed key and the postings object
+    private static final int ENTRY_BYTES = 96;
+    private static final int INITIAL_POSTINGS = 4;
+
+    private final long maxBytes;
+    private ResultTable result;
+    private int[] textColumns;
+    private Map<Long, Postings> grams;
+    private int indexedRows;
+    private long bytes;
+    private boolean disabled;
+
+    public RowIndex() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public RowIndex(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes=" + maxBytes + " cannot be negative");
+        }
+        this.maxBytes = maxBytes;
+        grams = new HashMap<>();
+    }
+
+    /**
+     * index the rows from, inclusive, to to, exclusive. the first call binds the index to the result, rows already
+     * indexed are skipped so a batch can be passed more than once.
+     */
+    public synchronized void addRows(ResultTable result, int from, int to) {
+        if (this.result == null) {
+            this.result = result;
+            textColumns = new int[result.getColumnCount()];
+            int count = 0;
+            for (int col = 0; col < result.getColumnCount(); col++) {
+                if (result.isText(col)) {
+                    textColumns[count++] = col;
+                }
+            }
+            textColumns = Arrays.copyOf(textColumns, count);
+        } else if (this.result != result) {
+            throw new IllegalStateException("index already holds the rows of another result");
+        }
+        if (from > indexedRows) {
+            throw new IllegalArgumentException("rows " + indexedRows + " to " + from + " were never indexed");
+        }
+        for (int row = indexedRows; row < to && !disabled; row++) {
+            for (int col : textColumns) {
+                String value = result.getString(row, col);
+                if (value != null) {
+                    addGrams(value, row);
+                }
+            }
+            if (bytes > maxBytes) {
+                //too big to be worth it, searches go to the database again
+                disabled = true;
+                grams = null;
+                bytes = 0;
+            }
+        }
+        indexedRows = Math.max(indexedRows, to);
+    }
+
+    private void addGrams(String value, int row) {
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            long gram = gram(value, i);
+            Postings postings = grams.get(gram);
+            if (postings == null) {
+                postings = new Postings();
+                grams.put(gram, postings);
+                bytes += ENTRY_BYTES + INITIAL_POSTINGS * 4;
+            }
+            bytes += postings.add(row);
+        }
+    }
+
+    private static long gram(String value, int start) {
+        long gram = 0;
+        for (int i = start; i < start + GRAM; i++) {
+            gram = (gram << 16) | Character.toLowerCase(value.charAt(i));
+        }
+        return gram;
+    }
+
+    /**
+     * rows of the indexed result whose text columns contain the term, in row order. null if the index is turned off
+     * or the term can not be answered from memory, see the class comment.
+     */
+    public synchronized int[] search(String searchTerm) {
+        if (disabled || result == null) {
+            return null;
+        }
+        String term = ResultCache.normalize(searchTerm);
+        if (term.isEmpty()) {
+            int[] all = new int[indexedRows];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        if (term.indexOf('%') >= 0 || term.indexOf('_') >= 0 || !SearchQuery.isTextOnly(term)) {
+            return null;
+        }
+        if (term.length() < GRAM) {
+            return verify(null, indexedRows, term);
+        }
+        //intersect starting from the rarest trigram so the candidates stay few
+        List<Postings> lists = new ArrayList<>(term.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Postings postings = grams.get(gram(term, i));
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = Arrays.copyOf(lists.get(0).rows, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retain(candidates, count);
+        }
+        //the trigrams may be found in different columns or in the wrong order, so check the rows themselves
+        return verify(candidates, count, term);
+    }
+
+    //keep the candidate rows, all rows if candidates is null, that really contain the term
+    private int[] verify(int[] candidates, int count, String term) {
+        int[] found = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int row = candidates == null ? i : candidates[i];
+            if (contains(row, term)) {
+                found[size++] = row;
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    private boolean contains(int row, String term) {
+        for (int col : textColumns) {
+            if (result.textContains(row, col, term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //result the rows belong to, null before the first rows are added
+    public synchronized ResultTable getResult() {
+        return result;
+    }
+
+    public synchronized int getIndexedRowCount() {
+        return indexedRows;
+    }
+
+    //true once the index went over its memory budget
+    public synchronized boolean isDisabled() {
+        return disabled;
+    }
+
+    public synchronized long estimateBytes() {
+        return bytes;
+    }
+
+    /**
+     * ascending rows containing one trigram, a row is only added once.
+     */
+    private static final class Postings {
+        private int[] rows = new int[INITIAL_POSTINGS];
+        private int size;
+
+        //returns the number of bytes the postings grew by
+        private int add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return 0;
+            }
+            int grown = 0;
+            if (size == rows.length) {
+                int length = rows.length + (rows.length >> 1);
+                grown = (length - rows.length) * 4;
+                rows = Arrays.copyOf(rows, length);
+            }
+            rows[size++] = row;
+            return grown;
+        }
+
+        //keep the first count rows of candidates that are also in these postings, returns how many are left
+        private int retain(int[] candidates, int count) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count && j < size; i++) {
+                while (j < size && rows[j] < candidates[i]) {
+                    j++;
+                }
+                if (j < size && rows[j] == candidates[i]) {
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RowMapper class
+ * Reads the rows of one query as lists of objects. the metadata of the ResultSet is read once when the mapper is
+ * built: every column is resolved to its index and given the typed getter that returns the same class as
+ * ResultSet.getObject would, so the driver does not look the label up again for every cell. the getter is picked by
+ * a switch on a small int kind, which the JIT compiles to a jump table instead of a call through an interface.
+ *
+ * @author Juan Ni
+ *
+ */
+final class RowMapper {
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte INT = 2;
+    private static final byte SHORT = 3;
+    private static final byte BYTE = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte BOOLEAN = 7;
+    private static final byte STRING = 8;
+    private static final byte BYTES = 9;
+    private static final byte BIG_DECIMAL = 10;
+    private static final byte DATE = 11;
+    private static final byte TIME = 12;
+    private static final byte TIMESTAMP = 13;
+
+    private final int[] indexes;
+    private final byte[] kinds;
+
+    private RowMapper(int[] indexes, byte[] kinds) {
+        this.indexes = indexes;
+        this.kinds = kinds;
+    }
+
+    /**
+     * mapper of the columns in the given order, each label is looked up once in rs.
+     *
+     * @throws SQLException if a label is not a column of rs
+     */
+    static RowMapper create(ResultSet rs, List<String> columns) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int[] indexes = new int[columns.size()];
+        byte[] kinds = new byte[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = rs.findColumn(columns.get(i));
+            kinds[i] = kindOf(meta.getColumnClassName(indexes[i]));
+        }
+        return new RowMapper(indexes, kinds);
+    }
+
+    //the class names are the ones getObject returns, anything else is read with getObject
+    private static byte kindOf(String className) {
+        if (className == null) {
+            return OBJECT;
+        }
+        switch (className) {
+            case "java.lang.Long":
+                return LONG;
+            case "java.lang.Integer":
+                return INT;
+            case "java.lang.Short":
+                return SHORT;
+            case "java.lang.Byte":
+                return BYTE;
+            case "java.lang.Double":
+                return DOUBLE;
+            case "java.lang.Float":
+                return FLOAT;
+            case "java.lang.Boolean":
+                return BOOLEAN;
+            case "java.lang.String":
+                return STRING;
+            case "[B":
+                return BYTES;
+            case "java.math.BigDecimal":
+                return BIG_DECIMAL;
+            case "java.sql.Date":
+                return DATE;
+            case "java.sql.Time":
+                return TIME;
+            case "java.sql.Timestamp":
+                return TIMESTAMP;
+            default:
+                return OBJECT;
+        }
+    }
+
+    //the current row of rs, values are in the order of the columns the mapper was built with
+    List<Object> mapRow(ResultSet rs) throws SQLException {
+        List<Object> row = new ArrayList<>(indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            int index = indexes[i];
+            Object value;
+            //primitives are checked with wasNull, the small boxes come from the caches of valueOf
+            switch (kinds[i]) {
+                case LONG: {
+                    long v = rs.getLong(index);
+                    value = rs.wasNull() ? null : Long.valueOf(v);
+                    break;
+                }
+                case INT: {
+                    int v = rs.getInt(index);
+                    value = rs.wasNull() ? null : Integer.valueOf(v);
+                    break;
+                }
+                case SHORT: {
+                    short v = rs.getShort(index);
+                    value = rs.wasNull() ? null : Short.valueOf(v);
+                    break;
+                }
+                case BYTE: {
+                    byte v = rs.getByte(index);
+                    value = rs.wasNull() ? null : Byte.valueOf(v);
+                    break;
+                }
+                case DOUBLE: {
+                    double v = rs.getDouble(index);
+                    value = rs.wasNull() ? null : Double.valueOf(v);
+                    break;
+                }
+                case FLOAT: {
+                    float v = rs.getFloat(index);
+                    value = rs.wasNull() ? null : Float.valueOf(v);
+                    break;
+                }
+                case BOOLEAN: {
+                    boolean v = rs.getBoolean(index);
+                    value = rs.wasNull() ? null : Boolean.valueOf(v);
+                    break;
+                }
+                case STRING:
+                    value = rs.getString(index);
+                    break;
+                case BYTES:
+                    value = rs.getBytes(index);
+                    break;
+                case BIG_DECIMAL:
+                    value = rs.getBigDecimal(index);
+                    break;
+                case DATE:
+                    value = rs.getDate(index);
+                    break;
+                case TIME:
+                    value = rs.getTime(index);
+                    break;
+                case TIMESTAMP:
+                    value = rs.getTimestamp(index);
+                    break;
+                default:
+                    value = rs.getObject(index);
+            }
+            row.add(value);
+        }
+        return row;
+    }
+}
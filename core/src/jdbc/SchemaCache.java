@@ -0,0 +1,99 @@
+package jdbc;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * SchemaCache class
+ * Keeps the table names of a catalog and the {@link TableSchema} of each table, so switching between tables does
+ * not go back to the database. entries expire after a time to live and can be invalidated at any time.
+ * 
+ * @author Juan Ni
+ *
+ */
+public class SchemaCache {
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * reads a value from the database when it is not cached.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    private final Map<String, Entry<TableSchema>> schemas;
+    private final Map<String, Entry<List<String>>> tableNames;
+    private final LongSupplier clock;
+    private volatile long ttlMillis;
+
+    public SchemaCache() {
+        this(DEFAULT_TTL_MILLIS, System::currentTimeMillis);
+    }
+
+    SchemaCache(long ttlMillis, LongSupplier clock) {
+        schemas = new ConcurrentHashMap<>();
+        tableNames = new ConcurrentHashMap<>();
+        this.clock = clock;
+        setTTL(ttlMillis);
+    }
+
+    //0 turns caching off, every request goes to the database
+    public void setTTL(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("ttl=" + ttlMillis + " cannot be negative");
+        }
+        this.ttlMillis = ttlMillis;
+    }
+
+    public long getTTL() {
+        return ttlMillis;
+    }
+
+    public TableSchema getSchema(String catalog, String table, Loader<TableSchema> loader) throws SQLException {
+        return get(schemas, key(catalog, table), loader);
+    }
+
+    public List<String> getTableNames(String catalog, Loader<List<String>> loader) throws SQLException {
+        return get(tableNames, key(catalog, ""), loader);
+    }
+
+    public void invalidate(String catalog, String table) {
+        schemas.remove(key(catalog, table));
+    }
+
+    public void invalidateAll() {
+        schemas.clear();
+        tableNames.clear();
+    }
+
+    private <T> T get(Map<String, Entry<T>> map, String key, Loader<T> loader) throws SQLException {
+        long now = clock.getAsLong();
+        Entry<T> entry = map.get(key);
+        if (entry != null && now - entry.loadedAt < ttlMillis) {
+            return entry.value;
+        }
+        //two threads missing at the same time both load, which is cheaper than holding a lock over a round trip
+        T value = loader.load();
+        map.put(key, new Entry<>(value, now));
+        return value;
+    }
+
+    private static String key(String catalog, String table) {
+        return (catalog == null ? "" : catalog) + '\u0000' + table;
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long loadedAt;
+
+        private Entry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
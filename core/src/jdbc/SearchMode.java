@@ -0,0 +1,20 @@
+package jdbc;
+
+/**
+ * SearchMode enum
+ * How {@link JDBCModel} turns a search term into a where clause.
+ *
+ * @author Juan Ni
+ *
+ */
+public enum SearchMode {
+    /**
+     * like on text columns, equality and ranges on numeric and date columns, see {@link SearchQuery}
+     */
+    LIKE,
+    /**
+     * MATCH ... AGAINST on the FULLTEXT indexes of the table ordered by relevance. tables without a FULLTEXT index,
+     * databases other than MySQL and terms too short to be indexed use {@link #LIKE}.
+     */
+    FULLTEXT
+}
@@ -0,0 +1,342 @@
+package jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jdbc.dialect.Dialect;
+
+/**
+ * SearchQuery class
+ * Where clause of a search built from the column types of the table. text columns are matched with like, numeric
+ * columns with equality and only when the term is a number, date and time columns with the range the term covers
+ * (2021 is the whole year, 2021-02 the month and so on), binary and LOB columns are never searched. an empty term
+ * has no where clause.
+ *
+ * in {@link SearchMode#FULLTEXT} mode the term is matched against every FULLTEXT index of the table with
+ * MATCH ... AGAINST and the rows are ordered by relevance instead.
+ *
+ * the SQL only depends on the table and the {@link #getShape() shape}, so it can be cached by both.
+ *
+ * @author Juan Ni
+ *
+ */
+final class SearchQuery {
+    //year, optional month and day, optional hour and minute with optional seconds
+    private static final Pattern DATE_TIME = Pattern.compile(
+            "(\\d{4})(?:-(\\d{1,2})(?:-(\\d{1,2})(?:[ T](\\d{1,2}):(\\d{2})(?::(\\d{2}))?)?)?)?");
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2}):(\\d{2})(?::(\\d{2}))?");
+
+    //one character per column, see the constants below
+    private static final char SKIP = '-';
+    private static final char LIKE = 'L';
+    private static final char EQUAL = 'E';
+    private static final char RANGE = 'R';
+    private static final char FROM = 'F';
+    private static final String MATCH = "M";
+
+    /**
+     * InnoDB does not index words shorter than innodb_ft_min_token_size, 3 by default
+     */
+    static final int FULLTEXT_MIN_TERM_LENGTH = 3;
+
+    private final String shape;
+    private final List<Object> parameters;
+    private final List<List<String>> fullTextIndexes;
+
+    private SearchQuery(String shape, List<Object> parameters, List<List<String>> fullTextIndexes) {
+        this.shape = shape;
+        this.parameters = parameters;
+        this.fullTextIndexes = fullTextIndexes;
+    }
+
+    static SearchQuery of(TableSchema schema, String searchTerm) {
+        return of(schema, searchTerm, SearchMode.LIKE);
+    }
+
+    //FULLTEXT mode falls back to LIKE when the table has no FULLTEXT index or the term is too short
+    static SearchQuery of(TableSchema schema, String searchTerm, SearchMode mode) {
+        String term = ResultCache.normalize(searchTerm);
+        if (term.isEmpty()) {
+            return new SearchQuery("", Collections.emptyList(), Collections.emptyList());
+        }
+        if (mode == SearchMode.FULLTEXT && !schema.getFullTextIndexes().isEmpty()
+                && term.length() >= FULLTEXT_MIN_TERM_LENGTH) {
+            return fullText(schema.getFullTextIndexes(), term);
+        }
+        BigDecimal number = parseNumber(term);
+        LocalDateTime[] dateRange = parseDateRange(term);
+        LocalTime[] timeRange = parseTimeRange(term);
+        StringBuilder shape = new StringBuilder(schema.getColumnCount());
+        List<Object> parameters = new ArrayList<>();
+        for (int i = 0; i < schema.getColumnCount(); i++) {
+            int type = schema.getJdbcType(i);
+            if (isText(type)) {
+                shape.append(LIKE);
+                parameters.add("%" + term + "%");
+            } else if (isInteger(type) && number != null && isIntegral(number)) {
+                shape.append(EQUAL);
+                parameters.add(toIntegral(number));
+            } else if (isDecimal(type) && number != null) {
+                shape.append(EQUAL);
+                parameters.add(number);
+            } else if (type == Types.DATE && dateRange != null && dateRange[0].toLocalTime().equals(LocalTime.MIDNIGHT)
+                    && dateRange[1].toLocalTime().equals(LocalTime.MIDNIGHT)) {
+                shape.append(RANGE);
+                parameters.add(Date.valueOf(dateRange[0].toLocalDate()));
+                parameters.add(Date.valueOf(dateRange[1].toLocalDate()));
+            } else if ((type == Types.TIMESTAMP || type == Types.TIMESTAMP_WITH_TIMEZONE) && dateRange != null) {
+                shape.append(RANGE);
+                parameters.add(Timestamp.valueOf(dateRange[0]));
+                parameters.add(Timestamp.valueOf(dateRange[1]));
+            } else if ((type == Types.TIME || type == Types.TIME_WITH_TIMEZONE) && timeRange != null) {
+                //the range of the last minute of the day has no end, time columns stop at midnight
+                if (timeRange[1] == null) {
+                    shape.append(FROM);
+                    parameters.add(Time.valueOf(timeRange[0]));
+                } else {
+                    shape.append(RANGE);
+                    parameters.add(Time.valueOf(timeRange[0]));
+                    parameters.add(Time.valueOf(timeRange[1]));
+                }
+            } else {
+                shape.append(SKIP);
+            }
+        }
+        return new SearchQuery(shape.toString(), parameters, Collections.emptyList());
+    }
+
+    private static SearchQuery fullText(List<List<String>> indexes, String term) {
+        //the term is bound once for the where clause and once for the relevance of every index
+        List<Object> parameters = new ArrayList<>(indexes.size() * 2);
+        for (int i = 0; i < indexes.size() * 2; i++) {
+            parameters.add(term);
+        }
+        return new SearchQuery(MATCH + indexes, parameters, indexes);
+    }
+
+    //true if the term is only matched by like, a number, date or time also matches the other columns
+    static boolean isTextOnly(String searchTerm) {
+        String term = ResultCache.normalize(searchTerm);
+        return parseNumber(term) == null && parseDateRange(term) == null && parseTimeRange(term) == null;
+    }
+
+    boolean isFullText() {
+        return !fullTextIndexes.isEmpty();
+    }
+
+    //which predicate each column gets or the FULLTEXT indexes matched, empty when there is no where clause
+    String getShape() {
+        return shape;
+    }
+
+    List<Object> getParameters() {
+        return parameters;
+    }
+
+    //identifiers written as they are
+    String buildSQL(String table, List<String> columns) {
+        return buildSQL(table, columns, null);
+    }
+
+    //identifiers quoted by dialect where it needs them, dialect can be null
+    String buildSQL(String table, List<String> columns, Dialect dialect) {
+        StringBuilder sqlBuilder = new StringBuilder("select * from ");
+        sqlBuilder.append(quote(dialect, table));
+        if (shape.isEmpty()) {
+            return sqlBuilder.toString();
+        }
+        if (isFullText()) {
+            return appendFullText(sqlBuilder, dialect).toString();
+        }
+        sqlBuilder.append(" where ");
+        int predicates = 0;
+        for (int i = 0; i < shape.length(); i++) {
+            String column = quote(dialect, columns.get(i));
+            switch (shape.charAt(i)) {
+                case LIKE:
+                    sqlBuilder.append(column).append(" like ? or ");
+                    break;
+                case EQUAL:
+                    sqlBuilder.append(column).append(" = ? or ");
+                    break;
+                case RANGE:
+                    sqlBuilder.append("(").append(column).append(" >= ? and ").append(column).append(" < ?) or ");
+                    break;
+                case FROM:
+                    sqlBuilder.append(column).append(" >= ? or ");
+                    break;
+                default:
+                    continue;
+            }
+            predicates++;
+        }
+        //a term no column can hold, for example letters in a table of numbers, matches nothing
+        if (predicates == 0) {
+            return sqlBuilder.append("1 = 0").toString();
+        }
+        sqlBuilder.setLength(sqlBuilder.length() - 4);
+        return sqlBuilder.toString();
+    }
+
+    //select * from t where match(a, b) against (?) or match(c) against (?)
+    //order by match(a, b) against (?) + match(c) against (?) desc
+    private StringBuilder appendFullText(StringBuilder sqlBuilder, Dialect dialect) {
+        sqlBuilder.append(" where ");
+        for (List<String> index : fullTextIndexes) {
+            appendMatch(sqlBuilder, index, dialect).append(" or ");
+        }
+        sqlBuilder.setLength(sqlBuilder.length() - 4);
+        sqlBuilder.append(" order by ");
+        for (List<String> index : fullTextIndexes) {
+            appendMatch(sqlBuilder, index, dialect).append(" + ");
+        }
+        sqlBuilder.setLength(sqlBuilder.length() - 3);
+        return sqlBuilder.append(" desc");
+    }
+
+    private static StringBuilder appendMatch(StringBuilder sqlBuilder, List<String> index, Dialect dialect) {
+        sqlBuilder.append("match(");
+        for (String column : index) {
+            sqlBuilder.append(quote(dialect, column)).append(", ");
+        }
+        sqlBuilder.setLength(sqlBuilder.length() - 2);
+        return sqlBuilder.append(") against (? in natural language mode)");
+    }
+
+    private static String quote(Dialect dialect, String identifier) {
+        return dialect == null ? identifier : dialect.quoteIdentifier(identifier);
+    }
+
+    void bind(PreparedStatement ps) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            ps.setObject(i + 1, parameters.get(i));
+        }
+    }
+
+    private static boolean isText(int type) {
+        switch (type) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isInteger(int type) {
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isDecimal(int type) {
+        switch (type) {
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static BigDecimal parseNumber(String term) {
+        try {
+            return new BigDecimal(term);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isIntegral(BigDecimal number) {
+        return number.signum() == 0 || number.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static Object toIntegral(BigDecimal number) {
+        try {
+            return number.longValueExact();
+        } catch (ArithmeticException e) {
+            //bigger than a long, for example a BIGINT UNSIGNED value
+            return number.toBigIntegerExact();
+        }
+    }
+
+    //start inclusive and end exclusive of the period named by the term, null if it is not a date
+    private static LocalDateTime[] parseDateRange(String term) {
+        Matcher m = DATE_TIME.matcher(term);
+        if (!m.matches()) {
+            return null;
+        }
+        try {
+            int year = Integer.parseInt(m.group(1));
+            if (m.group(2) == null) {
+                LocalDateTime start = LocalDate.of(year, 1, 1).atStartOfDay();
+                return new LocalDateTime[] { start, start.plusYears(1) };
+            }
+            int month = Integer.parseInt(m.group(2));
+            if (m.group(3) == null) {
+                LocalDateTime start = LocalDate.of(year, month, 1).atStartOfDay();
+                return new LocalDateTime[] { start, start.plusMonths(1) };
+            }
+            LocalDate day = LocalDate.of(year, month, Integer.parseInt(m.group(3)));
+            if (m.group(4) == null) {
+                return new LocalDateTime[] { day.atStartOfDay(), day.plusDays(1).atStartOfDay() };
+            }
+            LocalDateTime start = day.atTime(Integer.parseInt(m.group(4)), Integer.parseInt(m.group(5)));
+            if (m.group(6) == null) {
+                return new LocalDateTime[] { start, start.plusMinutes(1) };
+            }
+            start = start.withSecond(Integer.parseInt(m.group(6)));
+            return new LocalDateTime[] { start, start.plusSeconds(1) };
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    //start inclusive and end exclusive, the end is null when the range reaches midnight
+    private static LocalTime[] parseTimeRange(String term) {
+        Matcher m = TIME.matcher(term);
+        if (!m.matches()) {
+            return null;
+        }
+        try {
+            LocalTime start = LocalTime.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            LocalTime end;
+            if (m.group(3) == null) {
+                end = start.plusMinutes(1);
+            } else {
+                start = start.withSecond(Integer.parseInt(m.group(3)));
+                end = start.plusSeconds(1);
+            }
+            return new LocalTime[] { start, end.isAfter(start) ? end : null };
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TableSchema class
+ * Immutable description of one table as reported by DatabaseMetaData: its columns in order, their JDBC types and
+ * nullability, the primary key columns and the columns of its FULLTEXT indexes.
+ * 
+ * @author Juan Ni
+ *
+ */
+public class TableSchema {
+    private final String catalog;
+    private final String table;
+    private final List<String> columnNames;
+    private final int[] jdbcTypes;
+    private final String[] typeNames;
+    private final boolean[] nullable;
+    private final List<String> primaryKeys;
+    private final List<List<String>> fullTextIndexes;
+
+    TableSchema(String catalog, String table, List<Column> columns, List<String> primaryKeys) {
+        this(catalog, table, columns, primaryKeys, Collections.emptyList());
+    }
+
+    TableSchema(String catalog, String table, List<Column> columns, List<String> primaryKeys,
+            List<List<String>> fullTextIndexes) {
+        this.catalog = catalog;
+        this.table = table;
+        List<String> names = new ArrayList<>(columns.size());
+        jdbcTypes = new int[columns.size()];
+        typeNames = new String[columns.size()];
+        nullable = new boolean[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            names.add(column.name);
+            jdbcTypes[i] = column.jdbcType;
+            typeNames[i] = column.typeName;
+            nullable[i] = column.nullable;
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+        this.primaryKeys = Collections.unmodifiableList(new ArrayList<>(primaryKeys));
+        List<List<String>> indexes = new ArrayList<>(fullTextIndexes.size());
+        for (List<String> index : fullTextIndexes) {
+            indexes.add(Collections.unmodifiableList(new ArrayList<>(index)));
+        }
+        this.fullTextIndexes = Collections.unmodifiableList(indexes);
+    }
+
+    public String getCatalog() {
+        return catalog;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    //index of the column ignoring case, -1 if the table has no such column
+    public int getColumnIndex(String column) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (columnNames.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //one of the java.sql.Types constants
+    public int getJdbcType(int column) {
+        return jdbcTypes[column];
+    }
+
+    //database specific name of the type, for example VARCHAR or INT UNSIGNED
+    public String getTypeName(int column) {
+        return typeNames[column];
+    }
+
+    public boolean isNullable(int column) {
+        return nullable[column];
+    }
+
+    public List<String> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    //columns of each FULLTEXT index in index order, empty if the table has none
+    public List<List<String>> getFullTextIndexes() {
+        return fullTextIndexes;
+    }
+
+    //columns the rows are ordered by, the primary key or the first column when there is none. without a primary key
+    //they do not identify a row, so they must not be used to find the rows of an edit
+    public List<String> getRowKeyColumns() {
+        return primaryKeys.isEmpty() ? Collections.singletonList(columnNames.get(0)) : primaryKeys;
+    }
+
+    /**
+     * one column while the schema is being read.
+     */
+    static final class Column {
+        private final String name;
+        private final int jdbcType;
+        private final String typeName;
+        private final boolean nullable;
+
+        Column(String name, int jdbcType, String typeName, boolean nullable) {
+            this.name = name;
+            this.jdbcType = jdbcType;
+            this.typeName = typeName;
+            this.nullable = nullable;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package jdbc;
+
+/**
+ * TableSearchListener interface
+ * Told about each table of a catalog wide search as soon as its search finishes with at least one matching row.
+ * 
+ * @author Juan Ni
+ *
+ */
+@FunctionalInterface
+public interface TableSearchListener {
+
+    /**
+     * hits holds the matching rows of table, it is complete unless the row budget of the search ran out.
+     */
+    void tableSearched(String table, ResultTable hits);
+}
@@ -0,0 +1,41 @@
+package jdbc.builder;
+
+/**
+ * H2URLBuilder class extends JDBCURLBuilder class
+ * connects to an H2 server over TCP, or opens the database files in this process when the address is empty. the
+ * properties are H2 settings, separated by semicolons.
+ *
+ * @author Juan Ni
+ *
+ */
+public class H2URLBuilder extends JDBCURLBuilder {
+    public H2URLBuilder() {
+        setDB("h2");
+    }
+
+    @Override
+    public String getURL() {
+        //assemble a connection URL like one of these:
+        //jdbc:h2:tcp://localhost:9092/redditreader;MODE=MySQL
+        //jdbc:h2:./redditreader;MODE=MySQL
+        StringBuilder urlBuilder = new StringBuilder();
+        urlBuilder.append(JDBC);
+        urlBuilder.append(":");
+        urlBuilder.append(dbType);
+        urlBuilder.append(":");
+        if (hostAddress != null && !hostAddress.isEmpty()) {
+            urlBuilder.append("tcp://");
+            urlBuilder.append(hostAddress);
+            urlBuilder.append(":");
+            urlBuilder.append(portNumber);
+            urlBuilder.append("/");
+        }
+        urlBuilder.append(catalogName);
+        return appendProperties(urlBuilder, ";", ";").toString();
+    }
+
+    @Override
+    public int getDefaultPort() {
+        return 9092;
+    }
+}
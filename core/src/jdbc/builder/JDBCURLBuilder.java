@@ -69,5 +69,41 @@ public abstract class JDBCURLBuilder {
         this.catalogName = catalog;
     }
 
+    public String getDBType() {
+        return dbType;
+    }
+
+    //port the database listens on when it is not changed, 0 for databases that are files
+    public abstract int getDefaultPort();
+
+    //URL of the connections used for workload, the same for every workload unless a subclass tunes them
+    public String getURL(Workload workload) {
+        if (workload == null) {
+            throw new NullPointerException();
+        }
+        return getURL();
+    }
+
+    //append the properties as key=value pairs, start before the first one and separator between two of them
+    protected StringBuilder appendProperties(StringBuilder urlBuilder, String start, String separator) {
+        return appendProperties(urlBuilder, properties, start, separator);
+    }
+
+    protected static StringBuilder appendProperties(StringBuilder urlBuilder, Map<String, String> properties,
+            String start, String separator) {
+        if (!properties.isEmpty()) {
+            urlBuilder.append(start);
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                urlBuilder.append(property.getKey());
+                urlBuilder.append("=");
+                urlBuilder.append(property.getValue());
+                urlBuilder.append(separator);
+            }
+            //get rid of the separator after the last property
+            urlBuilder.setLength(urlBuilder.length() - separator.length());
+        }
+        return urlBuilder;
+    }
+
 
 }
\ No newline at end of file
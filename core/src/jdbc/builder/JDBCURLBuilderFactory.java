@@ -0,0 +1,45 @@
+package jdbc.builder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBCURLBuilderFactory class
+ * Create a factory to get access to concrete instances of JDBCURLBuilder
+ * Finished by Juan Ni on Feb 15, 2021
+ * 
+ * @author Juan Ni
+ *
+ */
+public class JDBCURLBuilderFactory {
+    private static final List<String> DB_TYPES = Collections
+            .unmodifiableList(Arrays.asList("mysql", "postgresql", "sqlite", "h2"));
+
+    public static JDBCURLBuilder create() {
+        return new MySQLURLBuilder();
+    }
+
+    //dbType is one of getDBTypes
+    public static JDBCURLBuilder create(String dbType) {
+        if (dbType == null) {
+            throw new NullPointerException();
+        }
+        switch (dbType) {
+            case "mysql":
+                return new MySQLURLBuilder();
+            case "postgresql":
+                return new PostgreSQLURLBuilder();
+            case "sqlite":
+                return new SQLiteURLBuilder();
+            case "h2":
+                return new H2URLBuilder();
+            default:
+                throw new IllegalArgumentException("DB type=\"" + dbType + "\" is not supported");
+        }
+    }
+
+    public static List<String> getDBTypes() {
+        return DB_TYPES;
+    }
+}
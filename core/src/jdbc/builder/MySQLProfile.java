@@ -0,0 +1,197 @@
+package jdbc.builder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * MySQLProfile class
+ * Named set of Connector/J properties tuned for one kind of work, appended to the URL by {@link MySQLURLBuilder}.
+ * profiles are made with {@link #builder(String)}, which checks that the properties make sense together, for
+ * example a positive defaultFetchSize only changes something with useCursorFetch=true. properties that are not set
+ * keep the default of the driver.
+ *
+ * @author Juan Ni
+ *
+ */
+public final class MySQLProfile {
+    /**
+     * server prepared statements cached on both sides and results fetched through a cursor 100 rows at a time,
+     * so the first rows of a search come back quickly and small statements are not delayed
+     */
+    public static final MySQLProfile INTERACTIVE = builder("low-latency interactive").useServerPrepStmts(true)
+            .cachePrepStmts(true).prepStmtCacheSize(250).prepStmtCacheSqlLimit(2048).useCursorFetch(true)
+            .defaultFetchSize(100).tcpNoDelay(true).useCompression(false).build();
+    /**
+     * one large compressed stream per export with a big receive buffer, the statement runs once so it is not
+     * prepared on the server
+     */
+    public static final MySQLProfile BULK_EXPORT = builder("bulk export").useServerPrepStmts(false)
+            .cachePrepStmts(false).useCompression(true).tcpRcvBuf(4 * 1024 * 1024).build();
+    /**
+     * batches rewritten into multi-row statements, sent through a big send buffer
+     */
+    public static final MySQLProfile BULK_EDIT = builder("bulk edit").rewriteBatchedStatements(true)
+            .useServerPrepStmts(false).cachePrepStmts(true).prepStmtCacheSize(64).tcpSndBuf(1024 * 1024).build();
+
+    private static final List<MySQLProfile> PROFILES = Collections
+            .unmodifiableList(Arrays.asList(INTERACTIVE, BULK_EXPORT, BULK_EDIT));
+
+    private final String name;
+    private final Map<String, String> properties;
+
+    private MySQLProfile(String name, Map<String, String> properties) {
+        this.name = name;
+        this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+    }
+
+    public static List<MySQLProfile> getProfiles() {
+        return PROFILES;
+    }
+
+    //one of the profiles of getProfiles, the case of the name does not matter
+    public static MySQLProfile forName(String name) {
+        Objects.requireNonNull(name, "profile name cannot be null");
+        for (MySQLProfile profile : PROFILES) {
+            if (profile.name.equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("profile name=\"" + name + "\" is not valid");
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    //Connector/J property names and values in the order they were set
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Builder class
+     * sets the properties of a profile one by one, {@link #build()} checks them together.
+     */
+    public static final class Builder {
+        private final String name;
+        private final Map<String, String> properties;
+
+        private Builder(String name) {
+            Objects.requireNonNull(name, "profile name cannot be null");
+            if (name.trim().isEmpty()) {
+                throw new IllegalArgumentException("profile name cannot be empty");
+            }
+            this.name = name.trim();
+            properties = new LinkedHashMap<>();
+        }
+
+        //prepare statements on the server instead of sending their text each time
+        public Builder useServerPrepStmts(boolean value) {
+            return set("useServerPrepStmts", value);
+        }
+
+        public Builder cachePrepStmts(boolean value) {
+            return set("cachePrepStmts", value);
+        }
+
+        //statements kept per connection, needs cachePrepStmts
+        public Builder prepStmtCacheSize(int size) {
+            return set("prepStmtCacheSize", checkPositive("prepStmtCacheSize", size));
+        }
+
+        //longest SQL cached, needs cachePrepStmts
+        public Builder prepStmtCacheSqlLimit(int length) {
+            return set("prepStmtCacheSqlLimit", checkPositive("prepStmtCacheSqlLimit", length));
+        }
+
+        //send a batch of inserts or updates as multi-row statements
+        public Builder rewriteBatchedStatements(boolean value) {
+            return set("rewriteBatchedStatements", value);
+        }
+
+        //read results through a server cursor in blocks of defaultFetchSize rows
+        public Builder useCursorFetch(boolean value) {
+            return set("useCursorFetch", value);
+        }
+
+        //rows per block of a cursor, needs useCursorFetch
+        public Builder defaultFetchSize(int rows) {
+            return set("defaultFetchSize", checkPositive("defaultFetchSize", rows));
+        }
+
+        //zlib compression of the protocol, less bytes for more CPU on both sides
+        public Builder useCompression(boolean value) {
+            return set("useCompression", value);
+        }
+
+        public Builder tcpNoDelay(boolean value) {
+            return set("tcpNoDelay", value);
+        }
+
+        //size in bytes of the socket receive buffer
+        public Builder tcpRcvBuf(int bytes) {
+            return set("tcpRcvBuf", checkPositive("tcpRcvBuf", bytes));
+        }
+
+        //size in bytes of the socket send buffer
+        public Builder tcpSndBuf(int bytes) {
+            return set("tcpSndBuf", checkPositive("tcpSndBuf", bytes));
+        }
+
+        /**
+         * the profile with the properties set so far.
+         *
+         * @throws IllegalStateException if a property needs another one that is not set
+         */
+        public MySQLProfile build() {
+            if ((properties.containsKey("prepStmtCacheSize") || properties.containsKey("prepStmtCacheSqlLimit"))
+                    && !isTrue("cachePrepStmts")) {
+                throw new IllegalStateException(name + ": prepStmtCacheSize and prepStmtCacheSqlLimit need"
+                        + " cachePrepStmts=true");
+            }
+            //without a cursor Connector/J reads the whole result whatever the fetch size
+            if (properties.containsKey("defaultFetchSize") && !isTrue("useCursorFetch")) {
+                throw new IllegalStateException(name + ": defaultFetchSize needs useCursorFetch=true");
+            }
+            if (isTrue("useCursorFetch")) {
+                if (!properties.containsKey("defaultFetchSize")) {
+                    throw new IllegalStateException(name + ": useCursorFetch=true needs a defaultFetchSize");
+                }
+                //cursors only exist for statements prepared on the server
+                if ("false".equals(properties.get("useServerPrepStmts"))) {
+                    throw new IllegalStateException(name + ": useCursorFetch=true needs useServerPrepStmts=true");
+                }
+            }
+            return new MySQLProfile(name, properties);
+        }
+
+        private Builder set(String key, Object value) {
+            properties.put(key, String.valueOf(value));
+            return this;
+        }
+
+        private boolean isTrue(String key) {
+            return "true".equals(properties.get(key));
+        }
+
+        private static int checkPositive(String key, int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(key + "=" + value + " must be positive");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package jdbc.builder;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * MySQLURLBuilder class extends JDBCURLBuilder class
+ * Finished by Juan Ni on Feb 15, 2021
+ * 
+ * @author Juan Ni
+ *
+ */
+public class MySQLURLBuilder extends JDBCURLBuilder {
+    private final Map<Workload, MySQLProfile> profiles;
+
+    public MySQLURLBuilder() {
+        setDB("mysql");
+        profiles = new EnumMap<>(Workload.class);
+    }
+
+    //profile can be null to use only the properties added with addURLProperty
+    public void setProfile(Workload workload, MySQLProfile profile) {
+        if (workload == null) {
+            throw new NullPointerException();
+        }
+        if (profile == null) {
+            profiles.remove(workload);
+        } else {
+            profiles.put(workload, profile);
+        }
+    }
+
+    public MySQLProfile getProfile(Workload workload) {
+        return profiles.get(workload);
+    }
+
+    //URL of the interactive work
+    @Override
+    public String getURL() {
+        return getURL(Workload.INTERACTIVE);
+    }
+
+    /**
+     * URL with the properties of the profile of workload followed by the ones added with addURLProperty.
+     *
+     * @throws IllegalStateException if an added property gives another value to a property of the profile
+     */
+    @Override
+    public String getURL(Workload workload) {
+        //assemble a connection URL like this:
+        //jdbc:mysql://localhost:3306/redditreader?serverTimezone=UTC&useUnicode=true
+        StringBuilder urlBuilder = new StringBuilder();
+        urlBuilder.append(JDBC);
+        urlBuilder.append(":");
+        urlBuilder.append(dbType);
+        urlBuilder.append("://");
+        urlBuilder.append(hostAddress); 
+        urlBuilder.append(":");
+        urlBuilder.append(portNumber);
+        urlBuilder.append("/");
+        urlBuilder.append(catalogName);
+
+        Map<String, String> urlProperties = new LinkedHashMap<>();
+        MySQLProfile profile = getProfile(Objects.requireNonNull(workload, "workload cannot be null"));
+        if (profile != null) {
+            urlProperties.putAll(profile.getProperties());
+        }
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            String profileValue = urlProperties.put(property.getKey(), property.getValue());
+            if (profileValue != null && !profileValue.equals(property.getValue())) {
+                throw new IllegalStateException("property " + property.getKey() + "=" + property.getValue()
+                        + " conflicts with " + property.getKey() + "=" + profileValue + " of profile \""
+                        + profile.getName() + "\"");
+            }
+        }
+        //concatenate key and value with format "key=value" and put "&" between multiple properties
+        appendProperties(urlBuilder, urlProperties, "?", "&");
+
+        return urlBuilder.toString();
+
+    }
+
+    @Override
+    public int getDefaultPort() {
+        return 3306;
+    }
+
+}
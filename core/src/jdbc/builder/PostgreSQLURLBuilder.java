@@ -0,0 +1,35 @@
+package jdbc.builder;
+
+/**
+ * PostgreSQLURLBuilder class extends JDBCURLBuilder class
+ *
+ * @author Juan Ni
+ *
+ */
+public class PostgreSQLURLBuilder extends JDBCURLBuilder {
+    public PostgreSQLURLBuilder() {
+        setDB("postgresql");
+    }
+
+    @Override
+    public String getURL() {
+        //assemble a connection URL like this:
+        //jdbc:postgresql://localhost:5432/redditreader?ssl=false
+        StringBuilder urlBuilder = new StringBuilder();
+        urlBuilder.append(JDBC);
+        urlBuilder.append(":");
+        urlBuilder.append(dbType);
+        urlBuilder.append("://");
+        urlBuilder.append(hostAddress);
+        urlBuilder.append(":");
+        urlBuilder.append(portNumber);
+        urlBuilder.append("/");
+        urlBuilder.append(catalogName);
+        return appendProperties(urlBuilder, "?", "&").toString();
+    }
+
+    @Override
+    public int getDefaultPort() {
+        return 5432;
+    }
+}
@@ -0,0 +1,32 @@
+package jdbc.builder;
+
+/**
+ * SQLiteURLBuilder class extends JDBCURLBuilder class
+ * SQLite databases are files, the catalog is the path of the file and the address and port are not used.
+ *
+ * @author Juan Ni
+ *
+ */
+public class SQLiteURLBuilder extends JDBCURLBuilder {
+    public SQLiteURLBuilder() {
+        setDB("sqlite");
+    }
+
+    @Override
+    public String getURL() {
+        //assemble a connection URL like this:
+        //jdbc:sqlite:/home/cst8288/redditreader.db?journal_mode=WAL
+        StringBuilder urlBuilder = new StringBuilder();
+        urlBuilder.append(JDBC);
+        urlBuilder.append(":");
+        urlBuilder.append(dbType);
+        urlBuilder.append(":");
+        urlBuilder.append(catalogName);
+        return appendProperties(urlBuilder, "?", "&").toString();
+    }
+
+    @Override
+    public int getDefaultPort() {
+        return 0;
+    }
+}
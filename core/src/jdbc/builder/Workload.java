@@ -0,0 +1,24 @@
+package jdbc.builder;
+
+/**
+ * Workload enum
+ * Kind of work a connection is used for. a {@link MySQLProfile} can be chosen for each of them, the model then uses
+ * a separate pool for the workloads whose URL is not the one of the interactive work.
+ *
+ * @author Juan Ni
+ *
+ */
+public enum Workload {
+    /**
+     * searches, pages and metadata shown in the table view
+     */
+    INTERACTIVE,
+    /**
+     * whole tables or searches written to a file
+     */
+    EXPORT,
+    /**
+     * batches of edited cells written back to the tables
+     */
+    EDIT
+}
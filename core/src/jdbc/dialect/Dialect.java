@@ -0,0 +1,159 @@
+package jdbc.dialect;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Dialect class
+ * What the model has to do differently on each database engine: the driver properties set when connecting, how a
+ * result is streamed instead of read into memory at once, how identifiers are quoted, how a page of rows is
+ * limited and how a statement is explained. the defaults are the ones of standard SQL and drivers that stream on
+ * their own, see {@link DialectFactory} for the engines that need more.
+ *
+ * the quote string and how the database stores unquoted identifiers are read from {@link DatabaseMetaData} in
+ * {@link #init(DatabaseMetaData)}, names that would be read the same way without quotes are left as they are.
+ *
+ * @author Juan Ni
+ *
+ */
+public class Dialect {
+    /**
+     * fetch size asking for a streamed result, the value MySQL Connector/J uses for it
+     */
+    public static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    /**
+     * rows per round trip when a database streams through a cursor with a positive fetch size
+     */
+    public static final int CURSOR_FETCH_SIZE = 1000;
+
+    private static final Pattern PLAIN_IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    //words that cannot be a column name without quotes on at least one of the engines
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList("all", "and", "as", "asc", "between",
+            "by", "case", "check", "column", "constraint", "create", "default", "delete", "desc", "distinct", "drop",
+            "else", "end", "exists", "from", "group", "having", "in", "index", "insert", "into", "is", "join", "key",
+            "like", "limit", "not", "null", "offset", "on", "or", "order", "primary", "references", "select", "set",
+            "table", "then", "to", "union", "unique", "update", "user", "using", "value", "values", "when", "where",
+            "with"));
+
+    //how unquoted identifiers are stored, as written or folded to one case
+    private enum Folding {
+        NONE, LOWER, UPPER
+    }
+
+    private final String name;
+    private String quote;
+    private Folding folding;
+
+    protected Dialect(String name, String quote) {
+        this.name = name;
+        this.quote = quote;
+        this.folding = Folding.NONE;
+    }
+
+    //the dialect of databases not known by DialectFactory
+    Dialect() {
+        this("generic", "\"");
+    }
+
+    //read the quote string and identifier case of the connected database, called once after connecting
+    public void init(DatabaseMetaData meta) throws SQLException {
+        String metaQuote = meta.getIdentifierQuoteString();
+        //a space means the database does not support quoting
+        if (metaQuote != null && !metaQuote.trim().isEmpty()) {
+            quote = metaQuote.trim();
+        }
+        if (meta.storesLowerCaseIdentifiers()) {
+            folding = Folding.LOWER;
+        } else if (meta.storesUpperCaseIdentifiers()) {
+            folding = Folding.UPPER;
+        } else {
+            folding = Folding.NONE;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    //set on the connection pool before connecting
+    public Map<String, String> getDriverProperties(int statementCacheSize) {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * set the fetch size of a statement about to be executed on connection. {@link #STREAMING_FETCH_SIZE} asks
+     * for the rows to be streamed in the way of the database, other sizes are a hint passed to the driver.
+     */
+    public void applyFetchSize(Connection connection, PreparedStatement ps, int fetchSize) throws SQLException {
+        //other drivers reject negative sizes, they stream or not on their own
+        if (fetchSize != STREAMING_FETCH_SIZE) {
+            ps.setFetchSize(fetchSize);
+        }
+    }
+
+    //true if closing a streamed result read only in part reads the rest, so the statement has to be cancelled first
+    public boolean isCancelledBeforeClose(int fetchSize) {
+        return false;
+    }
+
+    //MATCH ... AGAINST on FULLTEXT indexes, see SearchMode
+    public boolean supportsFullText() {
+        return false;
+    }
+
+    //true if LIKE matches letters whatever their case, only then can a search be narrowed with a RowIndex and find
+    //the same rows as the database. standard SQL compares them as written
+    public boolean isLikeCaseInsensitive() {
+        return false;
+    }
+
+    //the name as it can be written in SQL, quoted only when the database would not read it back the same way
+    public String quoteIdentifier(String identifier) {
+        if (PLAIN_IDENTIFIER.matcher(identifier).matches() && !RESERVED.contains(identifier.toLowerCase(Locale.ROOT))
+                && isStoredAsWritten(identifier)) {
+            return identifier;
+        }
+        //a quote inside the name is written twice
+        return quote + identifier.replace(quote, quote + quote) + quote;
+    }
+
+    private boolean isStoredAsWritten(String identifier) {
+        switch (folding) {
+            case LOWER:
+                return identifier.equals(identifier.toLowerCase(Locale.ROOT));
+            case UPPER:
+                return identifier.equals(identifier.toUpperCase(Locale.ROOT));
+            default:
+                return true;
+        }
+    }
+
+    //select limited to the number of rows bound to the last parameter
+    public String limit(String select) {
+        return select + " limit ?";
+    }
+
+    //select limited to the rows bound to the second to last parameter, after skipping the ones bound to the last
+    public String limitOffset(String select) {
+        return select + " limit ? offset ?";
+    }
+
+    //statement returning the plan of select
+    public String explain(String select) {
+        return "explain " + select;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,31 @@
+package jdbc.dialect;
+
+import java.util.Objects;
+
+/**
+ * DialectFactory class
+ * Picks the {@link Dialect} of a database from its connection URL.
+ *
+ * @author Juan Ni
+ *
+ */
+public class DialectFactory {
+
+    //databases not listed here get the standard SQL dialect
+    public static Dialect create(String url) {
+        Objects.requireNonNull(url, "url cannot be null");
+        if (url.startsWith("jdbc:mysql:")) {
+            return new MySQLDialect(url);
+        }
+        if (url.startsWith("jdbc:postgresql:")) {
+            return new PostgreSQLDialect();
+        }
+        if (url.startsWith("jdbc:sqlite:")) {
+            return new SQLiteDialect();
+        }
+        if (url.startsWith("jdbc:h2:")) {
+            return new H2Dialect();
+        }
+        return new Dialect();
+    }
+}
@@ -0,0 +1,26 @@
+package jdbc.dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * H2Dialect class
+ * H2 reads results in the database process and sends them to a client over TCP in blocks of the fetch size, so a
+ * streamed result asks for blocks of {@link #CURSOR_FETCH_SIZE} rows. how unquoted identifiers are stored depends on
+ * the DATABASE_TO_UPPER and DATABASE_TO_LOWER settings, which the metadata reports.
+ *
+ * @author Juan Ni
+ *
+ */
+public class H2Dialect extends Dialect {
+
+    public H2Dialect() {
+        super("h2", "\"");
+    }
+
+    @Override
+    public void applyFetchSize(Connection connection, PreparedStatement ps, int fetchSize) throws SQLException {
+        ps.setFetchSize(fetchSize == STREAMING_FETCH_SIZE ? CURSOR_FETCH_SIZE : fetchSize);
+    }
+}
@@ -0,0 +1,79 @@
+package jdbc.dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MySQLDialect class
+ * MySQL Connector/J streams a result row by row only with a fetch size of Integer.MIN_VALUE. a streamed result
+ * still open holds the connection until every row is read, so a search stopped early cancels its statement before
+ * closing it. when the URL turns on useCursorFetch, for example with a {@link jdbc.builder.MySQLProfile}, results
+ * are read through a server cursor in blocks of its defaultFetchSize instead. identifiers are quoted with back ticks.
+ *
+ * @author Juan Ni
+ *
+ */
+public class MySQLDialect extends Dialect {
+    //properties given in the URL, they are not set again as driver properties
+    private final Map<String, String> urlProperties;
+    private final boolean cursorFetch;
+
+    public MySQLDialect() {
+        this("jdbc:mysql://localhost");
+    }
+
+    public MySQLDialect(String url) {
+        super("mysql", "`");
+        urlProperties = new HashMap<>();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            for (String pair : url.substring(query + 1).split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    urlProperties.put(pair.substring(0, equals), pair.substring(equals + 1));
+                }
+            }
+        }
+        cursorFetch = "true".equalsIgnoreCase(urlProperties.get("useCursorFetch"));
+    }
+
+    //the default collations ignore case, only columns with a binary or _cs collation do not
+    @Override
+    public boolean isLikeCaseInsensitive() {
+        return true;
+    }
+
+    @Override
+    public Map<String, String> getDriverProperties(int statementCacheSize) {
+        Map<String, String> properties = new HashMap<>();
+        if (statementCacheSize > 0) {
+            //statements stay open in the cache, so let the server keep their parsed plan as well
+            properties.put("useServerPrepStmts", "true");
+        }
+        //lets Connector/J send a batch of edits as one multi-row statement in a single round trip
+        properties.put("rewriteBatchedStatements", "true");
+        properties.keySet().removeAll(urlProperties.keySet());
+        return properties;
+    }
+
+    @Override
+    public void applyFetchSize(Connection connection, PreparedStatement ps, int fetchSize) throws SQLException {
+        //the cursor keeps the defaultFetchSize of the URL
+        if (!(cursorFetch && fetchSize == STREAMING_FETCH_SIZE)) {
+            ps.setFetchSize(fetchSize);
+        }
+    }
+
+    @Override
+    public boolean isCancelledBeforeClose(int fetchSize) {
+        return fetchSize == STREAMING_FETCH_SIZE && !cursorFetch;
+    }
+
+    @Override
+    public boolean supportsFullText() {
+        return true;
+    }
+}
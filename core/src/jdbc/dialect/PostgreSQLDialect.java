@@ -0,0 +1,31 @@
+package jdbc.dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * PostgreSQLDialect class
+ * the PostgreSQL driver reads the whole result unless it can use a cursor, which needs a positive fetch size and
+ * auto commit turned off. a streamed search runs in a read only transaction rolled back when the connection goes
+ * back to the pool. unquoted identifiers are folded to lower case, so mixed case names are quoted.
+ *
+ * @author Juan Ni
+ *
+ */
+public class PostgreSQLDialect extends Dialect {
+
+    public PostgreSQLDialect() {
+        super("postgresql", "\"");
+    }
+
+    @Override
+    public void applyFetchSize(Connection connection, PreparedStatement ps, int fetchSize) throws SQLException {
+        if (fetchSize == 0) {
+            return;
+        }
+        //without a transaction the driver ignores the fetch size
+        connection.setAutoCommit(false);
+        ps.setFetchSize(fetchSize == STREAMING_FETCH_SIZE ? CURSOR_FETCH_SIZE : fetchSize);
+    }
+}
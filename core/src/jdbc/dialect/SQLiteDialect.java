@@ -0,0 +1,30 @@
+package jdbc.dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * SQLiteDialect class
+ * SQLite runs in the process and steps through the result one row at a time as it is read, so every result is
+ * already streamed and the fetch size has nothing to change. its plans are given by EXPLAIN QUERY PLAN, a plain
+ * EXPLAIN lists the bytecode of the statement.
+ *
+ * @author Juan Ni
+ *
+ */
+public class SQLiteDialect extends Dialect {
+
+    public SQLiteDialect() {
+        super("sqlite", "\"");
+    }
+
+    @Override
+    public void applyFetchSize(Connection connection, PreparedStatement ps, int fetchSize) {
+        //nothing to do, see the class comment
+    }
+
+    @Override
+    public String explain(String select) {
+        return "explain query plan " + select;
+    }
+}
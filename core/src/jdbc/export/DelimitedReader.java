@@ -0,0 +1,140 @@
+package jdbc.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DelimitedReader class
+ * Reads rows of CSV or TSV in the way {@link DelimitedWriter} writes them: quoted CSV fields may hold commas, quotes
+ * and line breaks, TSV fields use \t, \n, \r and \\ for those characters. a line break is either \n or \r\n, and an
+ * empty field is read as an empty string.
+ *
+ * @author Juan Ni
+ *
+ */
+public class DelimitedReader implements Closeable {
+    private static final int EOF = -1;
+    //nothing read ahead
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private final ExportFormat format;
+    private final char delimiter;
+    //character read ahead to find the end of a line or of a quoted field, EOF included
+    private int peeked = NONE;
+    private long line = 1;
+
+    public DelimitedReader(Reader in, ExportFormat format) {
+        this.in = in;
+        this.format = format;
+        delimiter = format == ExportFormat.TSV ? '\t' : ',';
+    }
+
+    public static DelimitedReader open(Path file, ExportFormat format) throws IOException {
+        return new DelimitedReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), format);
+    }
+
+    //line the next row starts on, for error messages
+    public long getLineNumber() {
+        return line;
+    }
+
+    /**
+     * read the next row.
+     *
+     * @return the fields of the row, null at the end of the input
+     * @throws IOException if the input cannot be read or a quoted field is not closed
+     */
+    public List<String> readRow() throws IOException {
+        int c = read();
+        if (c == EOF) {
+            return null;
+        }
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true) {
+            if (c == EOF || c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                row.add(field.toString());
+                if (c != EOF) {
+                    line++;
+                }
+                return row;
+            } else if (c == delimiter) {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (format == ExportFormat.CSV && c == '"' && field.length() == 0) {
+                readQuoted(field);
+            } else if (format == ExportFormat.TSV && c == '\\') {
+                field.append(unescape(read()));
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    //the rest of a quoted field, a doubled quote is one quote
+    private void readQuoted(StringBuilder field) throws IOException {
+        long start = line;
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw new IOException("quoted field starting on line " + start + " is not closed");
+            } else if (c == '"') {
+                if (peek() != '"') {
+                    return;
+                }
+                read();
+            } else if (c == '\n') {
+                line++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    private char unescape(int c) throws IOException {
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case '\\':
+                return '\\';
+            default:
+                throw new IOException("\\" + (c == EOF ? "" : String.valueOf((char) c)) + " on line " + line
+                        + " is not a TSV escape");
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != NONE) {
+            int c = peeked;
+            peeked = NONE;
+            return c;
+        }
+        return in.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == NONE) {
+            peeked = in.read();
+        }
+        return peeked;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
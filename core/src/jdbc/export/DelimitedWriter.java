@@ -0,0 +1,211 @@
+package jdbc.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * DelimitedWriter class
+ * Writes rows as CSV or TSV in UTF-8 to a {@link FileChannel} or any other byte channel, such as one over stdout.
+ * characters are encoded into a fixed size direct buffer
+ * that is written to the channel whenever it fills up, so memory use does not depend on how many rows are written.
+ *
+ * @author Juan Ni
+ *
+ */
+public class DelimitedWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ExportFormat format;
+    private final char delimiter;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private boolean rowStarted;
+    private boolean closed;
+    private long rows;
+    private long written;
+
+    public DelimitedWriter(WritableByteChannel channel, ExportFormat format) {
+        this.channel = channel;
+        this.format = format;
+        delimiter = format == ExportFormat.TSV ? '\t' : ',';
+        encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        chars = CharBuffer.allocate(BUFFER_SIZE);
+        bytes = ByteBuffer.allocateDirect(BUFFER_SIZE * 3);
+    }
+
+    //create or truncate the file
+    public static DelimitedWriter open(Path file, ExportFormat format) throws IOException {
+        return new DelimitedWriter(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), format);
+    }
+
+    //a null value is written as an empty field
+    public void writeField(String value) throws IOException {
+        if (rowStarted) {
+            append(delimiter);
+        }
+        rowStarted = true;
+        if (value == null) {
+            return;
+        }
+        if (format == ExportFormat.TSV) {
+            writeEscaped(value);
+        } else if (needsQuotes(value)) {
+            writeQuoted(value);
+        } else {
+            append(value);
+        }
+    }
+
+    public void endRow() throws IOException {
+        append(format == ExportFormat.TSV ? "\n" : "\r\n");
+        rowStarted = false;
+        rows++;
+    }
+
+    public void writeRow(List<?> values) throws IOException {
+        for (Object value : values) {
+            writeField(value == null ? null : value.toString());
+        }
+        endRow();
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    //bytes handed to the channel so far, the last partial buffer is only counted after flush
+    public long getBytesWritten() {
+        return written;
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                append('"');
+            }
+            append(c);
+        }
+        append('"');
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\t':
+                    append("\\t");
+                    break;
+                case '\n':
+                    append("\\n");
+                    break;
+                case '\r':
+                    append("\\r");
+                    break;
+                case '\\':
+                    append("\\\\");
+                    break;
+                default:
+                    append(c);
+            }
+        }
+    }
+
+    private void append(String value) throws IOException {
+        int start = 0;
+        while (start < value.length()) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int end = Math.min(value.length(), start + chars.remaining());
+            chars.put(value, start, end);
+            start = end;
+        }
+    }
+
+    private void append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+    }
+
+    //move the buffered characters to the byte buffer, writing it out whenever it is full
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        //a high surrogate waiting for its pair stays in the buffer
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            written += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    public void flush() throws IOException {
+        encode(false);
+        drain();
+    }
+
+    //write what is left and close the channel, force makes sure the file is on disk when the channel is a file
+    public void close(boolean force) throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            encode(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            drain();
+            if (force && channel instanceof FileChannel) {
+                ((FileChannel) channel).force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(false);
+    }
+}
@@ -0,0 +1,34 @@
+package jdbc.export;
+
+/**
+ * ExportFormat enum
+ * Text formats rows can be exported to.
+ * 
+ * @author Juan Ni
+ *
+ */
+public enum ExportFormat {
+    /**
+     * comma separated values as in RFC 4180, fields holding a comma, a quote or a line break are quoted
+     */
+    CSV("csv"),
+    /**
+     * tab separated values, tabs, line breaks and backslashes inside a field are written as \t, \n, \r and \\
+     */
+    TSV("tsv");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    //format matching the extension of the file name, CSV if there is no known extension
+    public static ExportFormat forFileName(String fileName) {
+        return fileName.toLowerCase().endsWith("." + TSV.extension) ? TSV : CSV;
+    }
+}
@@ -0,0 +1,14 @@
+package jdbc.export;
+
+/**
+ * ExportListener interface
+ * Told how far an export got, every few hundred rows and once more when the file is complete.
+ * 
+ * @author Juan Ni
+ *
+ */
+@FunctionalInterface
+public interface ExportListener {
+
+    void rowsExported(long rows, long bytes);
+}
@@ -0,0 +1,103 @@
+package jdbc.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram class
+ * Lock free histogram of durations with one bucket per power of two microseconds, bucket i counts the durations from
+ * 2^i up to 2^(i+1) microseconds. recording is a few atomic adds, so it can be done on every query, and percentiles
+ * are the upper bound of the bucket they fall in, at most twice the real value.
+ *
+ * @author Juan Ni
+ *
+ */
+public class LatencyHistogram {
+    //the last bucket holds everything from about 36 minutes up
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder totalNanos;
+    private final AtomicLong maxNanos;
+
+    public LatencyHistogram() {
+        buckets = new AtomicLongArray(BUCKETS);
+        count = new LongAdder();
+        totalNanos = new LongAdder();
+        maxNanos = new AtomicLong();
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            //System.nanoTime never goes back, but a caller may pass a wrong start
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucket(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static int bucket(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        if (micros <= 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / (double) n / 1_000_000;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * duration in milliseconds that fraction of the recorded durations do not exceed, for example 0.95 for the
+     * 95th percentile. 0 when nothing was recorded.
+     */
+    public double getPercentileMillis(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("fraction=" + fraction + " must be between 0 and 1");
+        }
+        long n = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                //never report more than the slowest duration really recorded
+                return Math.min((1L << (i + 1)) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    //not atomic, a duration recorded at the same time may be partly kept
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+}
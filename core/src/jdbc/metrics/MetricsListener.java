@@ -0,0 +1,14 @@
+package jdbc.metrics;
+
+/**
+ * MetricsListener interface
+ * Told about every finished query or update, on the thread that ran it.
+ *
+ * @author Juan Ni
+ *
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+    void queryFinished(QuerySummary summary);
+}
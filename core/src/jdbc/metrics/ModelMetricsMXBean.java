@@ -0,0 +1,47 @@
+package jdbc.metrics;
+
+/**
+ * ModelMetricsMXBean interface
+ * Totals of a model with its connection pool and caches, published as dbreader:type=Model,name=name. the pool
+ * values are 0 while the model is not connected.
+ *
+ * @author Juan Ni
+ *
+ */
+public interface ModelMetricsMXBean {
+
+    long getRowsFetched();
+
+    long getBytesFetched();
+
+    long getErrorCount();
+
+    String getLastQuery();
+
+    int getPoolTotalCount();
+
+    int getPoolIdleCount();
+
+    int getPoolActiveCount();
+
+    long getPoolLeakCount();
+
+    long getStatementCacheHits();
+
+    long getStatementCacheMisses();
+
+    long getStatementCloseErrors();
+
+    long getResultCacheHits();
+
+    long getResultCacheMisses();
+
+    long getResultCacheEvictions();
+
+    int getResultCacheSize();
+
+    long getResultCacheBytes();
+
+    //clear the latencies, counts and totals, the pool and cache values are not affected
+    void reset();
+}
@@ -0,0 +1,18 @@
+package jdbc.metrics;
+
+/**
+ * Operation enum
+ * Kinds of database work the model measures. a search is timed in two parts, {@link #SEARCH} until the database
+ * answers the query and {@link #EXTRACT} while the rows are read.
+ *
+ * @author Juan Ni
+ *
+ */
+public enum Operation {
+    CONNECT, METADATA, SEARCH, EXTRACT, UPDATE;
+
+    //lower case name used in the JMX object names
+    public String getName() {
+        return name().toLowerCase();
+    }
+}
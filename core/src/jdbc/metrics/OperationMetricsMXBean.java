@@ -0,0 +1,26 @@
+package jdbc.metrics;
+
+/**
+ * OperationMetricsMXBean interface
+ * Latency and errors of one {@link Operation}, published as dbreader:type=Operation,model=name,name=operation.
+ * times are in milliseconds.
+ *
+ * @author Juan Ni
+ *
+ */
+public interface OperationMetricsMXBean {
+
+    long getCount();
+
+    long getErrorCount();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+}
@@ -0,0 +1,213 @@
+package jdbc.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * QueryMetrics class
+ * Registry of what the model measures: a {@link LatencyHistogram} and an error count per {@link Operation}, the rows
+ * and bytes fetched and a summary of the last query. every method can be called from any thread.
+ *
+ * {@link #register(String, ModelMetricsMXBean)} publishes the registry on the platform MBean server so it can be
+ * watched with jconsole or any other JMX client.
+ *
+ * @author Juan Ni
+ *
+ */
+public class QueryMetrics {
+    private static final String DOMAIN = "dbreader";
+
+    private final Map<Operation, LatencyHistogram> latencies;
+    private final Map<Operation, LongAdder> errors;
+    private final LongAdder rowsFetched;
+    private final LongAdder bytesFetched;
+    private final List<ObjectName> registered;
+    private volatile QuerySummary lastQuery;
+    private volatile MetricsListener listener;
+
+    public QueryMetrics() {
+        latencies = new EnumMap<>(Operation.class);
+        errors = new EnumMap<>(Operation.class);
+        //filled once here and only read afterwards, so the maps need no locking
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+        rowsFetched = new LongAdder();
+        bytesFetched = new LongAdder();
+        registered = new ArrayList<>();
+    }
+
+    //start of an operation, pass it to the record methods
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    //duration of an operation that started at startNanos and just succeeded
+    public void record(Operation operation, long startNanos) {
+        latencies.get(operation).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * rows of a query are read. queryStartNanos is when the query was sent, extractStartNanos when the first row
+     * was asked for, so the extraction alone is recorded but the summary holds the whole query.
+     */
+    public void recordFetch(long queryStartNanos, long extractStartNanos, long rows, long bytes) {
+        long now = System.nanoTime();
+        latencies.get(Operation.EXTRACT).record(now - extractStartNanos);
+        rowsFetched.add(rows);
+        bytesFetched.add(bytes);
+        finished(new QuerySummary(Operation.SEARCH, now - queryStartNanos, rows));
+    }
+
+    public void recordUpdate(long startNanos, long rows) {
+        long nanos = System.nanoTime() - startNanos;
+        latencies.get(Operation.UPDATE).record(nanos);
+        finished(new QuerySummary(Operation.UPDATE, nanos, rows));
+    }
+
+    private void finished(QuerySummary summary) {
+        lastQuery = summary;
+        MetricsListener current = listener;
+        if (current != null) {
+            current.queryFinished(summary);
+        }
+    }
+
+    public void recordError(Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    public long getErrorCount(Operation operation) {
+        return errors.get(operation).sum();
+    }
+
+    public long getErrorCount() {
+        long sum = 0;
+        for (LongAdder count : errors.values()) {
+            sum += count.sum();
+        }
+        return sum;
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched.sum();
+    }
+
+    public long getBytesFetched() {
+        return bytesFetched.sum();
+    }
+
+    //null until the first query finished
+    public QuerySummary getLastQuery() {
+        return lastQuery;
+    }
+
+    //null removes the listener
+    public void setListener(MetricsListener listener) {
+        this.listener = listener;
+    }
+
+    public void reset() {
+        for (Operation operation : Operation.values()) {
+            latencies.get(operation).reset();
+            errors.get(operation).reset();
+        }
+        rowsFetched.reset();
+        bytesFetched.reset();
+        lastQuery = null;
+    }
+
+    /**
+     * publish model as dbreader:type=Model,name=name and every operation as
+     * dbreader:type=Operation,model=name,name=operation. registering again replaces the earlier beans.
+     */
+    public synchronized void register(String name, ModelMetricsMXBean model) throws JMException {
+        unregister();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String quoted = ObjectName.quote(name);
+        try {
+            registered.add(server.registerMBean(model,
+                    new ObjectName(DOMAIN + ":type=Model,name=" + quoted)).getObjectName());
+            for (Operation operation : Operation.values()) {
+                ObjectName objectName = new ObjectName(DOMAIN + ":type=Operation,model=" + quoted + ",name="
+                        + operation.getName());
+                registered.add(server.registerMBean(new OperationMetrics(operation), objectName).getObjectName());
+            }
+        } catch (JMException e) {
+            unregister();
+            throw e;
+        }
+    }
+
+    public synchronized void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                //already gone, for example unregistered by a JMX client
+                e.printStackTrace();
+            }
+        }
+        registered.clear();
+    }
+
+    /**
+     * the view of one operation published over JMX.
+     */
+    private final class OperationMetrics implements OperationMetricsMXBean {
+        private final Operation operation;
+
+        private OperationMetrics(Operation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public long getCount() {
+            return latencies.get(operation).getCount();
+        }
+
+        @Override
+        public long getErrorCount() {
+            return errors.get(operation).sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return latencies.get(operation).getMeanMillis();
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return latencies.get(operation).getMaxMillis();
+        }
+
+        @Override
+        public double getP50Millis() {
+            return latencies.get(operation).getPercentileMillis(0.5);
+        }
+
+        @Override
+        public double getP95Millis() {
+            return latencies.get(operation).getPercentileMillis(0.95);
+        }
+
+        @Override
+        public double getP99Millis() {
+            return latencies.get(operation).getPercentileMillis(0.99);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package jdbc.metrics;
+
+/**
+ * QuerySummary class
+ * Duration and row count of one finished query or update, what the status bar shows about the last query.
+ *
+ * @author Juan Ni
+ *
+ */
+public final class QuerySummary {
+    private final Operation operation;
+    private final long nanos;
+    private final long rows;
+
+    public QuerySummary(Operation operation, long nanos, long rows) {
+        this.operation = operation;
+        this.nanos = nanos;
+        this.rows = rows;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    //rows read by a search or written by an update
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("last %s: %.1f ms, %d rows", operation == Operation.UPDATE ? "update" : "query",
+                getMillis(), rows);
+    }
+}
@@ -0,0 +1,206 @@
+package jdbc.metrics;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SlowQueryLog class
+ * Text log of the searches that took longer than a threshold, with their SQL, bind values, time, row count and the
+ * EXPLAIN of the statement. the EXPLAIN and the file writes run on a background thread so the slow search is not
+ * made slower. when the file grows past maxBytes it is renamed to file.1, file.1 to file.2 and so on, keeping at
+ * most maxFiles files counting file itself.
+ *
+ * an entry looks like
+ *
+ * <pre>
+ * # 2021-03-16T10:15:00.123 table=post time=812.4ms rows=12034
+ * select * from post where title like ? or body like ?
+ * # parameters: [%java%, %java%]
+ * # explain:
+ * #   id  select_type  table  type ...
+ * #   1   SIMPLE       post   ALL  ...
+ * </pre>
+ *
+ * @author Juan Ni
+ *
+ */
+public class SlowQueryLog implements Closeable {
+    public static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+    //slow queries are rare, more than this many waiting means the disk or the database is stuck
+    private static final int QUEUE_SIZE = 64;
+
+    /**
+     * runs EXPLAIN of a statement with its bind values, one line per row of the plan.
+     */
+    @FunctionalInterface
+    public interface Explainer {
+        List<String> explain(String sql, List<Object> parameters) throws SQLException;
+    }
+
+    private final Path file;
+    private final long thresholdNanos;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final ThreadPoolExecutor writer;
+    private final AtomicLong logged;
+    private final AtomicLong dropped;
+    //only used on the writer thread
+    private BufferedWriter out;
+    private long size;
+
+    public SlowQueryLog(Path file, long thresholdMillis) throws IOException {
+        this(file, thresholdMillis, DEFAULT_MAX_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    public SlowQueryLog(Path file, long thresholdMillis, long maxBytes, int maxFiles) throws IOException {
+        if (thresholdMillis < 0 || maxBytes <= 0 || maxFiles < 1) {
+            throw new IllegalArgumentException("thresholdMillis=" + thresholdMillis + ", maxBytes=" + maxBytes
+                    + ", maxFiles=" + maxFiles + " are not valid");
+        }
+        this.file = file;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        logged = new AtomicLong();
+        dropped = new AtomicLong();
+        open();
+        writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+            Thread thread = new Thread(r, "slow-query-log");
+            thread.setDaemon(true);
+            return thread;
+        }, (task, executor) -> dropped.incrementAndGet());
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * log the search if it took at least the threshold. explainer, if not null, is called on the log thread.
+     *
+     * @return true if the entry is queued, false if the search was fast enough or the queue is full
+     */
+    public boolean log(String table, String sql, List<Object> parameters, long nanos, long rows,
+            Explainer explainer) {
+        if (!isSlow(nanos) || writer.isShutdown()) {
+            return false;
+        }
+        String header = "# " + LocalDateTime.now() + " table=" + table + String.format(" time=%.1fms", nanos / 1e6)
+                + " rows=" + rows;
+        long before = dropped.get();
+        writer.execute(() -> write(header, sql, parameters, explainer));
+        return dropped.get() == before;
+    }
+
+    private void write(String header, String sql, List<Object> parameters, Explainer explainer) {
+        StringBuilder entry = new StringBuilder(header).append(System.lineSeparator());
+        entry.append(sql).append(System.lineSeparator());
+        entry.append("# parameters: ").append(parameters).append(System.lineSeparator());
+        if (explainer != null) {
+            try {
+                List<String> plan = explainer.explain(sql, parameters);
+                entry.append("# explain:").append(System.lineSeparator());
+                for (String line : plan) {
+                    entry.append("#   ").append(line).append(System.lineSeparator());
+                }
+            } catch (SQLException | RuntimeException e) {
+                //the search itself worked, so keep the entry without its plan
+                entry.append("# explain failed: ").append(e.getMessage()).append(System.lineSeparator());
+            }
+        }
+        entry.append(System.lineSeparator());
+        try {
+            String text = entry.toString();
+            //close enough for the limit, most of the log is ASCII
+            if (size > 0 && size + text.length() > maxBytes) {
+                rotate();
+            }
+            out.write(text);
+            out.flush();
+            size += text.length();
+            logged.incrementAndGet();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //file.1 becomes file.2 and so on, the oldest is replaced, file becomes file.1 and an empty file is started
+    private void rotate() throws IOException {
+        out.close();
+        if (maxFiles == 1) {
+            Files.delete(file);
+        } else {
+            for (int i = maxFiles - 2; i >= 1; i--) {
+                if (Files.exists(rotated(i))) {
+                    Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    //entries written to the file so far
+    public long getLoggedCount() {
+        return logged.get();
+    }
+
+    //entries lost because the queue was full
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    //write the entries already queued, waiting at most timeoutMillis, then close the file
+    public void close(long timeoutMillis) throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        //a task still running after the timeout may write to the closed file, its entry is lost
+        writer.shutdownNow();
+        out.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(TimeUnit.SECONDS.toMillis(5));
+    }
+}
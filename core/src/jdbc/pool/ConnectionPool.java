@@ -0,0 +1,421 @@
+package jdbc.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConnectionPool class
+ * Bounded pool of JDBC connections. {@link #borrow()} hands out a connection whose close method gives it back to
+ * the pool instead of closing it. connections are validated on borrow when they were idle for a while, idle
+ * connections above the minimum size are evicted and connections held for too long are counted as leaks and given
+ * to the {@link LeakListener}. where a leaked connection was borrowed is only known with leak detection on, which
+ * costs a stack trace on every borrow. each connection keeps a small {@link StatementCache} so repeated prepares of
+ * the same SQL reuse the statement.
+ *
+ * @author Juan Ni
+ *
+ */
+public class ConnectionPool implements AutoCloseable {
+    public static final int DEFAULT_MIN_SIZE = 1;
+    public static final int DEFAULT_MAX_SIZE = 8;
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+
+    //connections returned less than this long ago are trusted without a validation round trip
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final Properties driverProperties;
+    private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+    private int minSize = DEFAULT_MIN_SIZE;
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(5);
+    private long borrowTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+    private long leakThresholdMillis = TimeUnit.MINUTES.toMillis(2);
+    private boolean leakDetection;
+    private volatile LeakListener leakListener;
+
+    //most recently returned connection first, so the warm ones are reused and the cold ones age out
+    private final LinkedBlockingDeque<PooledEntry> idle;
+    private final Set<PooledEntry> borrowed;
+    private final AtomicInteger total;
+    private final AtomicLong statementHits;
+    private final AtomicLong statementMisses;
+    private final AtomicLong statementCloseErrors;
+    private final AtomicLong leaks;
+    private Semaphore permits;
+    private ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String pass) {
+        this.url = url;
+        this.user = user;
+        driverProperties = new Properties();
+        if (user != null) {
+            driverProperties.setProperty("user", user);
+        }
+        if (pass != null) {
+            driverProperties.setProperty("password", pass);
+        }
+        idle = new LinkedBlockingDeque<>();
+        borrowed = ConcurrentHashMap.newKeySet();
+        total = new AtomicInteger();
+        statementHits = new AtomicLong();
+        statementMisses = new AtomicLong();
+        statementCloseErrors = new AtomicLong();
+        leaks = new AtomicLong();
+    }
+
+    //property passed to the driver when a connection is opened, properties in the URL take precedence
+    public ConnectionPool setDriverProperty(String key, String value) {
+        checkNotStarted();
+        driverProperties.setProperty(key, value);
+        return this;
+    }
+
+    //number of prepared statements kept open per connection, 0 turns the cache off
+    public ConnectionPool setStatementCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("statement cache size=" + size + " cannot be negative");
+        }
+        checkNotStarted();
+        this.statementCacheSize = size;
+        return this;
+    }
+
+    public ConnectionPool setSize(int minSize, int maxSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("minSize=" + minSize + ", maxSize=" + maxSize + " are not valid");
+        }
+        checkNotStarted();
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public ConnectionPool setIdleTimeout(long millis) {
+        checkNotStarted();
+        this.idleTimeoutMillis = checkPositive(millis);
+        return this;
+    }
+
+    public ConnectionPool setBorrowTimeout(long millis) {
+        checkNotStarted();
+        this.borrowTimeoutMillis = checkPositive(millis);
+        return this;
+    }
+
+    public ConnectionPool setLeakThreshold(long millis) {
+        checkNotStarted();
+        this.leakThresholdMillis = checkPositive(millis);
+        return this;
+    }
+
+    //record where every connection is borrowed, so a leak can be traced back to the code holding the connection
+    public ConnectionPool setLeakDetection(boolean leakDetection) {
+        checkNotStarted();
+        this.leakDetection = leakDetection;
+        return this;
+    }
+
+    //null to only count the leaks
+    public ConnectionPool setLeakListener(LeakListener leakListener) {
+        this.leakListener = leakListener;
+        return this;
+    }
+
+    private static long checkPositive(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("time=" + millis + " must be positive");
+        }
+        return millis;
+    }
+
+    private void checkNotStarted() {
+        if (permits != null) {
+            throw new IllegalStateException("pool is already started");
+        }
+    }
+
+    /**
+     * open the minimum number of connections and start the housekeeping thread. the first connection is opened on
+     * the calling thread so a wrong URL or password is reported right away.
+     */
+    public ConnectionPool start() throws SQLException {
+        checkNotStarted();
+        permits = new Semaphore(maxSize, true);
+        idle.offerLast(open());
+        for (int i = 1; i < minSize; i++) {
+            idle.offerLast(open());
+        }
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, period, period, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    public String getURL() {
+        return url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    public long getStatementCacheHits() {
+        return statementHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementMisses.get();
+    }
+
+    //cached statements that failed to close when they were dropped
+    public long getStatementCloseErrors() {
+        return statementCloseErrors.get();
+    }
+
+    //connections found held longer than the leak threshold so far
+    public long getLeakCount() {
+        return leaks.get();
+    }
+
+    /**
+     * borrow a connection, waiting up to the borrow timeout if all of them are in use. closing the returned
+     * connection gives it back to the pool.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed || permits == null) {
+            throw new SQLException("Connection pool is not open!");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("timed out after " + borrowTimeoutMillis + "ms waiting for a connection, "
+                        + borrowed.size() + " connections are in use");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for a connection", e);
+        }
+        try {
+            PooledEntry entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry)) {
+                    break;
+                }
+                discard(entry);
+            }
+            if (entry == null) {
+                entry = open();
+            }
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrowTrace = leakDetection ? new Exception("connection borrowed here") : null;
+            entry.leakReported = false;
+            borrowed.add(entry);
+            return entry.createHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - entry.returnedAt < VALIDATION_BYPASS_MILLIS) {
+                return true;
+            }
+            return entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledEntry open() throws SQLException {
+        PooledEntry entry = new PooledEntry(DriverManager.getConnection(url, driverProperties));
+        total.incrementAndGet();
+        return entry;
+    }
+
+    private void discard(PooledEntry entry) {
+        total.decrementAndGet();
+        if (entry.statements != null) {
+            entry.statements.close();
+        }
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void release(PooledEntry entry) {
+        borrowed.remove(entry);
+        try {
+            boolean usable = !closed && !entry.physical.isClosed();
+            if (usable && !entry.physical.getAutoCommit()) {
+                //never hand out a connection in the middle of somebody else's transaction
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            if (usable) {
+                entry.returnedAt = System.currentTimeMillis();
+                entry.borrowTrace = null;
+                idle.offerFirst(entry);
+            } else {
+                discard(entry);
+            }
+        } catch (SQLException e) {
+            discard(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    //runs on the housekeeping thread, package-private for the tests
+    void houseKeep() {
+        long now = System.currentTimeMillis();
+        //the least recently used connections are at the end of the deque
+        Iterator<PooledEntry> it = idle.descendingIterator();
+        while (it.hasNext() && total.get() > minSize) {
+            PooledEntry entry = it.next();
+            if (now - entry.returnedAt > idleTimeoutMillis && idle.remove(entry)) {
+                discard(entry);
+            }
+        }
+        while (!closed && total.get() < minSize) {
+            try {
+                idle.offerLast(open());
+            } catch (SQLException e) {
+                e.printStackTrace();
+                break;
+            }
+        }
+        for (PooledEntry entry : borrowed) {
+            long held = now - entry.borrowedAt;
+            if (!entry.leakReported && held > leakThresholdMillis) {
+                entry.leakReported = true;
+                leaks.incrementAndGet();
+                LeakListener listener = leakListener;
+                if (listener != null) {
+                    listener.leakDetected(held, entry.borrowTrace);
+                }
+            }
+        }
+    }
+
+    /**
+     * close the idle connections now, borrowed connections are closed when they are given back.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    /**
+     * one physical connection and its bookkeeping.
+     */
+    private final class PooledEntry {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long borrowedAt;
+        private volatile long returnedAt;
+        private volatile Exception borrowTrace;
+        private volatile boolean leakReported;
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize == 0 ? null
+                    : new StatementCache(statementCacheSize, statementHits, statementMisses,
+                            statementCloseErrors);
+            this.returnedAt = System.currentTimeMillis();
+        }
+
+        //each borrow gets its own handle, so closing an old handle twice can not return the connection again
+        private Connection createHandle() {
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean handleClosed;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!handleClosed) {
+                                handleClosed = true;
+                                release(PooledEntry.this);
+                            }
+                            return null;
+                        case "isClosed":
+                            return handleClosed || physical.isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "pooled " + physical;
+                        default:
+                            if (handleClosed) {
+                                throw new SQLException("Connection is closed!");
+                            }
+                    }
+                    if (statements != null && StatementCache.isCacheable(method)) {
+                        return statements.prepare(physical, (Connection) proxy, args);
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, handler);
+        }
+    }
+}
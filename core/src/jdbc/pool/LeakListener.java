@@ -0,0 +1,19 @@
+package jdbc.pool;
+
+/**
+ * LeakListener interface
+ * Told about a connection held longer than the leak threshold of its {@link ConnectionPool}, once per borrow, on
+ * the housekeeping thread.
+ *
+ * @author Juan Ni
+ *
+ */
+@FunctionalInterface
+public interface LeakListener {
+
+    /**
+     * @param heldMillis - how long the connection has been borrowed
+     * @param borrowTrace - where it was borrowed, null unless the pool was started with leak detection on
+     */
+    void leakDetected(long heldMillis, Exception borrowTrace);
+}
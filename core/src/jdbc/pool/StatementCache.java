@@ -0,0 +1,171 @@
+package jdbc.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StatementCache class
+ * Least recently used cache of prepared statements for one physical connection. closing a statement handed out by
+ * the cache only clears its parameters, so the next prepare of the same SQL skips parsing on the client and, when
+ * the driver uses server side prepares, on the server too.
+ *
+ * a connection is only used by one borrower at a time, so the cache is never shared between threads while in use.
+ *
+ * @author Juan Ni
+ *
+ */
+final class StatementCache {
+    private final Map<String, CachedStatement> statements;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong closeErrors;
+
+    /**
+     * @param closeErrors - counts statements that failed to close when dropped, nothing else can be done about them
+     */
+    StatementCache(int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong closeErrors) {
+        this.hits = hits;
+        this.misses = misses;
+        this.closeErrors = closeErrors;
+        statements = new LinkedHashMap<>(maxSize + 1, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    //only the plain prepareStatement(sql) and prepareStatement(sql, type, concurrency) forms are cached
+    static boolean isCacheable(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        return "prepareStatement".equals(method.getName()) && (types.length == 1
+                || (types.length == 3 && types[1] == int.class && types[2] == int.class));
+    }
+
+    synchronized PreparedStatement prepare(Connection physical, Connection handle, Object[] args)
+            throws SQLException {
+        String sql = (String) args[0];
+        String key = args.length == 1 ? sql : args[1] + "," + args[2] + ":" + sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            return cached.borrow(handle);
+        }
+        misses.incrementAndGet();
+        PreparedStatement ps = args.length == 1 ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, (Integer) args[1], (Integer) args[2]);
+        if (cached != null) {
+            //same SQL opened twice on one connection, the second one is not cached
+            return ps;
+        }
+        cached = new CachedStatement(ps);
+        statements.put(key, cached);
+        return cached.borrow(handle);
+    }
+
+    synchronized void close() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    private final class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement borrow(Connection handle) {
+            inUse = true;
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean handleClosed;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!handleClosed) {
+                                handleClosed = true;
+                                giveBack();
+                            }
+                            return null;
+                        case "isClosed":
+                            return handleClosed || statement.isClosed();
+                        case "getConnection":
+                            return handle;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "cached " + statement;
+                        default:
+                            if (handleClosed) {
+                                throw new SQLException("Statement is closed!");
+                            }
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            };
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, handler);
+        }
+
+        private void giveBack() {
+            synchronized (StatementCache.this) {
+                inUse = false;
+                if (evicted) {
+                    closeQuietly();
+                    return;
+                }
+                try {
+                    statement.clearParameters();
+                    statement.setQueryTimeout(0);
+                    statement.setFetchSize(0);
+                    statement.setMaxRows(0);
+                } catch (SQLException e) {
+                    statements.values().remove(this);
+                    closeQuietly();
+                }
+            }
+        }
+
+        //a statement still in use is closed when it is given back
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                closeErrors.incrementAndGet();
+            }
+        }
+    }
+}
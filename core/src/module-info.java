@@ -0,0 +1,14 @@
+module dbreader.core {
+
+	exports jdbc;
+	exports jdbc.builder;
+	exports jdbc.dialect;
+	exports jdbc.export;
+	//the MXBean interfaces also have to be visible to JMX
+	exports jdbc.metrics;
+	exports jdbc.pool;
+
+	//SQLException and JMException are part of the API
+	requires transitive java.sql;
+	requires transitive java.management;
+}
@@ -0,0 +1,143 @@
+package cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import jdbc.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+public class TestDBReaderCLI {
+    private EmbeddedDatabase database;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @TempDir
+    public Path directory;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase().seedRedditReader();
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        database.close();
+    }
+
+    //the password comes from the environment like on a server
+    private int run(String input, String... args) {
+        String[] all = new String[args.length + 2];
+        all[0] = "--url=" + database.getURL();
+        all[1] = "--user=" + EmbeddedDatabase.USER;
+        System.arraycopy(args, 0, all, 2, args.length);
+        DBReaderCLI cli = new DBReaderCLI(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true), new PrintStream(err, true),
+                Collections.singletonMap(DBReaderCLI.PASS_VARIABLE, EmbeddedDatabase.PASS));
+        return cli.run(all);
+    }
+
+    private String output() {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String error() {
+        return new String(err.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testTables() {
+        assertEquals(DBReaderCLI.OK, run("", "tables"));
+        assertEquals(String.join(System.lineSeparator(), "account", "board", "host", "image", ""), output());
+    }
+
+    @Test
+    public void testSearchToStdout() {
+        assertEquals(DBReaderCLI.OK, run("", "--format=tsv", "search", "account", "8288"));
+        assertEquals("id\tnickname\tusername\tpassword\n2\tShawn\tcst8288\t8288\n", output());
+    }
+
+    @Test
+    public void testExportToFile() throws IOException {
+        Path file = directory.resolve("account.csv");
+        assertEquals(DBReaderCLI.OK, run("", "--out=" + file, "export", "account"));
+        assertEquals("id,nickname,username,password\r\n1,administrator,admin,admin\r\n2,Shawn,cst8288,8288\r\n",
+                new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertTrue(output().isEmpty());
+    }
+
+    @Test
+    public void testEdit() throws SQLException {
+        //the empty password keeps its value, the blank line is skipped
+        String edits = "id,nickname,password\r\n1,root,\r\n\r\n2,\"Shawn, Ni\",secret\r\n";
+        assertEquals(DBReaderCLI.OK, run(edits, "edit", "account"));
+        //one update per edited cell
+        assertEquals("3" + System.lineSeparator(), output());
+        try (Statement statement = database.getConnection().createStatement();
+                ResultSet rs = statement.executeQuery("select nickname, password from account order by id")) {
+            assertTrue(rs.next());
+            assertEquals("root", rs.getString(1));
+            assertEquals("admin", rs.getString(2));
+            assertTrue(rs.next());
+            assertEquals("Shawn, Ni", rs.getString(1));
+            assertEquals("secret", rs.getString(2));
+        }
+    }
+
+    @Test
+    public void errorTestUsage() {
+        assertEquals(DBReaderCLI.USAGE, run("", "--colour=red", "tables"));
+        assertEquals(DBReaderCLI.USAGE, run("", "search", "account"));
+        assertTrue(output().isEmpty());
+        assertTrue(error().contains("usage:"));
+    }
+
+    @Test
+    public void errorTestAfterConnecting() {
+        //the arguments were fine, the command failed
+        assertEquals(DBReaderCLI.FAILED, run("", "columns", "post"));
+        assertEquals(DBReaderCLI.FAILED, run("id,colour\n1,red\n", "edit", "account"));
+        assertFalse(error().contains("usage:"));
+    }
+
+    @Test
+    public void errorTestEdit() {
+        //the second row is short a field, nothing is written
+        assertEquals(DBReaderCLI.FAILED, run("id,nickname\n1,root\n2\n", "edit", "account"));
+        assertTrue(error().contains("line 3"));
+    }
+
+    @Test
+    public void errorTestEditWithoutPrimaryKey() throws SQLException {
+        database.execute("create table note(owner varchar(45) not null, text varchar(100) not null)");
+        database.execute("insert into note values ('Shawn', 'a'), ('Jane', 'b')");
+        //keyed on the first column the edit could overwrite many rows, the key has to be given
+        assertEquals(DBReaderCLI.FAILED, run("owner,text\nShawn,c\n", "edit", "note"));
+        assertTrue(error().contains("--key"));
+        assertEquals(DBReaderCLI.OK, run("owner,text\nShawn,c\n", "--key=owner", "edit", "note"));
+        try (Statement statement = database.getConnection().createStatement();
+                ResultSet rs = statement.executeQuery("select text from note order by owner")) {
+            assertTrue(rs.next());
+            assertEquals("b", rs.getString(1));
+            assertTrue(rs.next());
+            assertEquals("c", rs.getString(1));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package jdbc;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EmbeddedDatabase class
+ * Embedded H2 database in MySQL mode for the model tests, so they run without a MySQL server. every instance is a
+ * new empty database that lives until {@link #close()}, in memory or, for tables larger than the heap, in files of a
+ * folder. {@link #seedRedditReader()} creates the four tables of the redditreader database the application was
+ * written against, {@link #generate(String, int, int, int, int)} fills a synthetic table of any size.
+ *
+ * @author Juan Ni
+ *
+ */
+public class EmbeddedDatabase implements AutoCloseable {
+    public static final String USER = "cst8288";
+    public static final String PASS = "8288";
+
+    //rows inserted per transaction by generate, a single insert of millions of rows keeps all of them in its undo log
+    private static final int GENERATE_CHUNK = 100_000;
+    //identifiers keep their case like on MySQL but are compared without it, small blobs are stored in their row
+    private static final String SETTINGS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE"
+            + ";MAX_LENGTH_INPLACE_LOB=4096";
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    private final String url;
+    //an in memory database is dropped when its last connection closes
+    private final Connection connection;
+
+    //in memory
+    public EmbeddedDatabase() throws SQLException {
+        this("jdbc:h2:mem:redditreader" + COUNT.incrementAndGet() + SETTINGS);
+    }
+
+    //in files of directory, which has to be deleted by the caller, for example a JUnit TempDir
+    public EmbeddedDatabase(Path directory) throws SQLException {
+        this("jdbc:h2:file:" + directory.toAbsolutePath().resolve("redditreader" + COUNT.incrementAndGet()) + SETTINGS);
+    }
+
+    private EmbeddedDatabase(String url) throws SQLException {
+        this.url = url;
+        connection = DriverManager.getConnection(url, USER, PASS);
+    }
+
+    public String getURL() {
+        return url;
+    }
+
+    //connection the fixture keeps open, for checking what the model wrote
+    public Connection getConnection() {
+        return connection;
+    }
+
+    //a model with the credentials of the database, not connected yet
+    public JDBCModel createModel() {
+        JDBCModel model = new JDBCModel();
+        model.setCredential(USER, PASS);
+        return model;
+    }
+
+    public void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * account, board, host and image with a few rows each.
+     * account holds 1 administrator admin admin and 2 Shawn cst8288 8288.
+     */
+    public EmbeddedDatabase seedRedditReader() throws SQLException {
+        execute("create table account(id bigint primary key, nickname varchar(45) not null,"
+                + " username varchar(45) not null, password varchar(45) not null)");
+        execute("create table host(id int primary key, url varchar(255) not null, name varchar(100) not null)");
+        execute("create table board(id int primary key, \"Host_id\" int not null, url varchar(255) not null,"
+                + " name varchar(100) not null)");
+        execute("create table image(id int primary key, url varchar(255) not null, title varchar(1000) not null,"
+                + " date timestamp not null, local_path varchar(255), \"Board_id\" int not null)");
+        execute("insert into account values (1, 'administrator', 'admin', 'admin'), (2, 'Shawn', 'cst8288', '8288')");
+        execute("insert into host values (1, 'https://www.reddit.com/', 'reddit')");
+        execute("insert into board values (1, 1, 'https://www.reddit.com/r/java/', 'java'),"
+                + " (2, 1, 'https://www.reddit.com/r/learnjava/', 'learnjava')");
+        execute("insert into image values"
+                + " (1, 'https://i.redd.it/a.png', 'Java 16 is out', '2021-03-16 10:15:00', null, 1),"
+                + " (2, 'https://i.redd.it/b.png', 'Records in practice', '2021-03-20 08:00:00', null, 1),"
+                + " (3, 'https://i.redd.it/c.png', 'My first program', '2020-12-01 18:30:00', null, 2)");
+        return this;
+    }
+
+    /**
+     * create table and fill it with rows synthetic rows, generated inside the database at about 100000 rows a
+     * second, use a database in files for more rows than the heap can hold. the columns are id bigint primary key,
+     * amount int, created timestamp, textColumns varchar columns text1, text2 ... of textLength characters and, when
+     * blobBytes is positive, a data blob of blobBytes bytes. text cells start with "row" and the id followed by a
+     * space, for example "row42 xxxx", and the rest of the cell is filled with x. amount is id % 1000 and created
+     * is 2021-01-01 plus id minutes.
+     */
+    public EmbeddedDatabase generate(String table, int rows, int textColumns, int textLength, int blobBytes)
+            throws SQLException {
+        if (rows < 0 || textColumns < 0 || textLength < 1 || blobBytes < 0) {
+            throw new IllegalArgumentException("rows=" + rows + ", textColumns=" + textColumns + ", textLength="
+                    + textLength + ", blobBytes=" + blobBytes + " are not valid");
+        }
+        StringBuilder create = new StringBuilder("create table ").append(table)
+                .append("(id bigint primary key, amount int not null, created timestamp not null");
+        //X is the column of system_range, quoted because unquoted names are lower cased
+        StringBuilder insert = new StringBuilder("insert into ").append(table)
+                .append(" select \"X\", mod(\"X\", 1000), dateadd(minute, \"X\", timestamp '2021-01-01 00:00:00')");
+        //the filler and the blob are bound once instead of being built again for every cell
+        for (int col = 1; col <= textColumns; col++) {
+            create.append(", text").append(col).append(" varchar(").append(textLength).append(")");
+            insert.append(", left(concat('row', \"X\", ' ', ?1), ").append(textLength).append(")");
+        }
+        if (blobBytes > 0) {
+            create.append(", data blob");
+            insert.append(", ?2");
+        }
+        execute(create.append(")").toString());
+        char[] filler = new char[textLength];
+        Arrays.fill(filler, 'x');
+        byte[] blob = new byte[blobBytes];
+        Arrays.fill(blob, (byte) 'b');
+        try (PreparedStatement ps = connection.prepareStatement(insert.append(" from system_range(?3, ?4)")
+                .toString())) {
+            ps.setString(1, new String(filler));
+            ps.setBytes(2, blob);
+            for (int from = 1; from <= rows; from += GENERATE_CHUNK) {
+                ps.setInt(3, from);
+                ps.setInt(4, Math.min(rows, from + GENERATE_CHUNK - 1));
+                ps.executeUpdate();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,137 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestCatalogSearch {
+    //enough rows that searching them takes longer than the budgets below
+    private static final int BIG_ROWS = 50_000;
+    private static final List<String> TABLES = Arrays.asList("account", "board", "host", "image");
+
+    private EmbeddedDatabase database;
+    private JDBCModel model;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase().seedRedditReader();
+        model = database.createModel();
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        model.close();
+        database.close();
+    }
+
+    //every table is either searched, skipped or failed, exactly once
+    private static void assertAllAccountedFor(List<String> tables, CatalogSearchResult result) {
+        Set<String> seen = new HashSet<>(result.getSkipped());
+        seen.addAll(result.getFailures().keySet());
+        assertEquals(tables.size(), result.getSearchedCount() + result.getSkipped().size()
+                + result.getFailures().size(), result.toString());
+        assertTrue(tables.containsAll(seen), result.toString());
+    }
+
+    @Test
+    public void testSearchCatalog() throws SQLException {
+        model.connectTo(database.getURL());
+        Map<String, ResultTable> heard = new ConcurrentHashMap<>();
+        CatalogSearchResult result = model.searchCatalog("reddit", 4, 10_000, 1000, null, heard::put);
+        assertEquals(4, result.getSearchedCount());
+        assertEquals(new HashSet<>(Arrays.asList("board", "host")), result.getHits().keySet());
+        assertEquals(result.getHits(), heard);
+        assertEquals(3, result.getHitCount());
+        assertTrue(result.getSkipped().isEmpty());
+        assertTrue(result.getFailures().isEmpty());
+        assertFalse(result.isTimedOut());
+        assertFalse(result.isRowLimitReached());
+    }
+
+    @Test
+    public void testRowBudget() throws SQLException {
+        model.connectTo(database.getURL());
+        //one worker searches the tables one after the other, the first one uses up the budget
+        CatalogSearchResult result = model.searchCatalog("", 1, 10_000, 1, null, null);
+        assertTrue(result.isRowLimitReached());
+        assertEquals(1, result.getSearchedCount());
+        assertEquals(1, result.getHitCount());
+        assertEquals(3, result.getSkipped().size());
+        assertAllAccountedFor(TABLES, result);
+    }
+
+    @Test
+    public void testTimeBudget() throws SQLException {
+        database.generate("big", BIG_ROWS, 4, 200, 0);
+        model.connectTo(database.getURL());
+        long start = System.currentTimeMillis();
+        //a term found nowhere, so every row of big is looked at
+        CatalogSearchResult result = model.searchCatalog("nothing like this", 1, 1, 1000, null, null);
+        assertTrue(result.isTimedOut(), result.toString());
+        assertFalse(result.getSkipped().isEmpty(), result.toString());
+        assertTrue(result.getFailures().isEmpty(), result.toString());
+        assertAllAccountedFor(model.getAndInitializeTableNames(), result);
+        //the running statement is cancelled rather than waited for
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test
+    public void errorTestFailedTable() throws SQLException {
+        model.connectTo(database.getURL());
+        //the table names are cached, host is gone by the time it is searched
+        assertEquals(TABLES, model.getAndInitializeTableNames());
+        database.execute("drop table host");
+        CatalogSearchResult result = model.searchCatalog("reddit", 2, 10_000, 1000, null, null);
+        assertEquals(Collections.singleton("host"), result.getFailures().keySet());
+        assertEquals(3, result.getSearchedCount());
+        assertEquals(Collections.singleton("board"), result.getHits().keySet());
+        assertAllAccountedFor(TABLES, result);
+    }
+
+    @Test
+    public void errorTestCancelled() throws SQLException, InterruptedException {
+        database.generate("big", BIG_ROWS, 4, 200, 0);
+        model.connectTo(database.getURL());
+        QueryHandle handle = new QueryHandle();
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handle.cancel();
+        });
+        canceller.start();
+        long start = System.currentTimeMillis();
+        SQLException e = assertThrows(SQLException.class,
+                () -> model.searchCatalog("nothing like this", 2, 60_000, 1000, handle, null));
+        assertTrue(QueryHandle.isCancellation(e));
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        canceller.join();
+        //a handle cancelled before the search started stops it as well
+        assertTrue(QueryHandle.isCancellation(assertThrows(SQLException.class,
+                () -> model.searchCatalog("reddit", 2, 60_000, 1000, handle, null))));
+    }
+
+    @Test
+    public void errorTestArguments() throws SQLException {
+        model.connectTo(database.getURL());
+        assertThrows(IllegalArgumentException.class, () -> model.searchCatalog("", 0, 1000, 1000, null, null));
+        assertThrows(IllegalArgumentException.class, () -> model.searchCatalog("", 1, 0, 1000, null, null));
+        assertThrows(IllegalArgumentException.class, () -> model.searchCatalog("", 1, 1000, 0, null, null));
+    }
+}
@@ -0,0 +1,60 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import jdbc.builder.H2URLBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestController {
+    private EmbeddedDatabase database;
+    private JDBCController controller;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase().seedRedditReader();
+        controller = new JDBCController();
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        controller.close();
+        database.close();
+    }
+
+    //the embedded database through the H2 builder, the same way the connect dialog fills it in
+    private void connect() throws SQLException {
+        String url = database.getURL();
+        H2URLBuilder builder = new H2URLBuilder();
+        builder.setCatalog(url.substring("jdbc:h2:".length(), url.indexOf(';')));
+        for (String property : url.substring(url.indexOf(';') + 1).split(";")) {
+            String[] pair = property.split("=");
+            builder.addURLProperty(pair[0], pair[1]);
+        }
+        controller.setURLBuilder(builder).setCredentials(EmbeddedDatabase.USER, EmbeddedDatabase.PASS).connect();
+    }
+
+    @Test
+    public void testGetTableNames() throws SQLException {
+        assertTrue(controller.getTableNames().isEmpty());
+        connect();
+        assertEquals(Arrays.asList("account", "board", "host", "image"), controller.getTableNames());
+    }
+
+    @Test
+    public void testSearchAsync() throws SQLException, InterruptedException, ExecutionException {
+        connect();
+        controller.setTableInUse("account");
+        assertEquals("account", controller.getTableInUse());
+        assertEquals(Arrays.asList("id", "nickname", "username", "password"), controller.getColumnNames());
+        ResultTable result = controller.searchAsync("8288", null).get();
+        assertEquals(1, result.getRowCount());
+        assertEquals("Shawn", result.getString(0, 1));
+    }
+}
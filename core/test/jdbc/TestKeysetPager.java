@@ -0,0 +1,167 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestKeysetPager {
+    private static final int ROWS = 100;
+    private static final int PAGE_SIZE = 2;
+    private static final long TIMEOUT = 5000;
+
+    private EmbeddedDatabase database;
+    private JDBCModel model;
+    private KeysetPager pager;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase().generate("item", ROWS, 1, 20, 0);
+        //a composite key whose first column repeats, keyset paging on it alone would skip rows
+        database.execute("create table pair(a int not null, b int not null, primary key (a, b))");
+        database.execute("insert into pair select mod(\"X\", 3), \"X\" from system_range(1, 30)");
+        model = database.createModel();
+        model.connectTo(database.getURL());
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        if (pager != null) {
+            pager.close();
+        }
+        model.close();
+        database.close();
+    }
+
+    //getRow until the page is in memory, it returns null while the page is loading
+    private ResultTable.Row awaitRow(int index) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        ResultTable.Row row;
+        while ((row = pager.getRow(index)) == null) {
+            assertTrue(System.currentTimeMillis() < deadline, "row " + index + " was not loaded");
+            Thread.sleep(10);
+        }
+        return row;
+    }
+
+    private void awaitPage(int page) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!pager.getLoadedPages().contains(page)) {
+            assertTrue(System.currentTimeMillis() < deadline, "page " + page + " was not loaded");
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitRowCount(int rows) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (pager.getRowCount() != rows) {
+            assertTrue(System.currentTimeMillis() < deadline, "row count is " + pager.getRowCount());
+            Thread.sleep(10);
+        }
+    }
+
+    private static long id(ResultTable.Row row) {
+        return row.getLong(0);
+    }
+
+    @Test
+    public void testForwardPaging() throws SQLException, InterruptedException {
+        pager = model.createPager("item", PAGE_SIZE, 64, null);
+        assertTrue(pager.isKeyset());
+        awaitRowCount(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(i + 1, id(awaitRow(i)));
+        }
+    }
+
+    @Test
+    public void testBackwardPaging() throws SQLException, InterruptedException {
+        pager = model.createPager("item", PAGE_SIZE, 64, null);
+        awaitRowCount(ROWS);
+        //nothing is known around page 30, it is read with an offset and the pages before it backwards from its key
+        assertEquals(61, id(awaitRow(60)));
+        for (int i = 59; i >= 40; i--) {
+            assertEquals(i + 1, id(awaitRow(i)));
+        }
+    }
+
+    @Test
+    public void testPageCache() throws SQLException, InterruptedException {
+        pager = model.createPager("item", PAGE_SIZE, 4, null);
+        awaitRowCount(ROWS);
+        for (int i = 0; i < ROWS; i += PAGE_SIZE) {
+            awaitRow(i);
+            assertTrue(pager.getLoadedPages().size() <= 4, pager.getLoadedPages().toString());
+        }
+        //the boundary keys are dropped together with their page
+        awaitPage(ROWS / PAGE_SIZE - 2);
+        synchronized (pager) {
+            assertEquals(pager.getLoadedPages(), pager.getBoundaryKeyPages());
+        }
+        assertFalse(pager.getLoadedPages().contains(0));
+        //an evicted page is read again
+        assertEquals(1, id(awaitRow(0)));
+    }
+
+    @Test
+    public void testPrefetch() throws SQLException, InterruptedException {
+        pager = model.createPager("item", PAGE_SIZE, 64, null);
+        awaitRowCount(ROWS);
+        awaitRow(20);
+        //the pages on both sides are read without being asked for
+        awaitPage(9);
+        awaitPage(11);
+    }
+
+    @Test
+    public void testMovedViewportDropsPendingLoads() throws SQLException, InterruptedException {
+        pager = model.createPager("item", PAGE_SIZE, 4, null);
+        awaitRowCount(ROWS);
+        //the paging thread waits on the pager while the viewport jumps from page 10 to page 40
+        synchronized (pager) {
+            assertNull(pager.getRow(20));
+            assertNull(pager.getRow(80));
+        }
+        awaitPage(39);
+        awaitPage(41);
+        assertNotNull(pager.getRow(80));
+        Set<Integer> loaded = pager.getLoadedPages();
+        for (int page = 9; page <= 11; page++) {
+            assertFalse(loaded.contains(page), loaded.toString());
+        }
+    }
+
+    @Test
+    public void testReadRow() throws SQLException, InterruptedException {
+        pager = model.createPager("item", PAGE_SIZE, 4, null);
+        //read on the calling thread, every page in turn, without waiting for the paging thread
+        for (int i = ROWS - 1; i >= 0; i--) {
+            assertEquals(i + 1, pager.readRow(i).getLong(0));
+        }
+        assertTrue(pager.getLoadedPages().size() <= 4);
+        assertNull(pager.readRow(ROWS));
+    }
+
+    @Test
+    public void testOffsetPagingWithoutSingleKey() throws SQLException, InterruptedException {
+        pager = model.createPager("pair", 4, 4, null);
+        assertFalse(pager.isKeyset());
+        assertEquals(Arrays.asList("a", "b"), pager.getKeyColumns());
+        awaitRowCount(30);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            assertTrue(seen.add((int) awaitRow(i).getLong(1)));
+        }
+        assertEquals(30, seen.size());
+    }
+}
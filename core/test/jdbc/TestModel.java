@@ -0,0 +1,365 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdbc.builder.Workload;
+import jdbc.export.ExportFormat;
+import jdbc.metrics.Operation;
+import jdbc.metrics.QueryMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+public class TestModel {
+    private EmbeddedDatabase database;
+    private JDBCModel model;
+
+    @TempDir
+    public Path directory;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase().seedRedditReader();
+        model = database.createModel();
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        model.close();
+        database.close();
+    }
+
+    @Test
+    public void normalTestConnectTo() throws SQLException {
+        model.connectTo(database.getURL());
+        assertTrue(model.isConnected());
+    }
+
+    @Test
+    public void errorTestConnectTo() {
+        //password is wrong
+        model.setCredential(EmbeddedDatabase.USER, "1");
+        assertThrows(SQLException.class, () -> model.connectTo(database.getURL()));
+    }
+
+    @Test
+    public void testIsConnected() throws SQLException {
+        assertFalse(model.isConnected());
+        model.connectTo(database.getURL());
+        assertTrue(model.isConnected());
+    }
+
+    @Test
+    public void testClose() throws SQLException {
+        model.connectTo(database.getURL());
+        model.close();
+        assertFalse(model.isConnected());
+    }
+
+    @Test
+    public void testGetAndInitializeTableNames() throws SQLException {
+        model.connectTo(database.getURL());
+        //only the four tables of the database, not the ones of information_schema
+        assertEquals(Arrays.asList("account", "board", "host", "image"), model.getAndInitializeTableNames());
+    }
+
+    @Test
+    public void testGetAndInitializeColumnNames() throws SQLException {
+        model.connectTo(database.getURL());
+        assertEquals(Arrays.asList("id", "nickname", "username", "password"),
+                model.getAndInitializeColumnNames("account"));
+        assertEquals(Arrays.asList("id", "Host_id", "url", "name"), model.getAndInitializeColumnNames("board"));
+    }
+
+    @Test
+    public void errorTestGetAndInitializeColumnNames() throws SQLException {
+        model.connectTo(database.getURL());
+        assertThrows(IllegalArgumentException.class, () -> model.getAndInitializeColumnNames("post"));
+    }
+
+    @Test
+    public void testSearch() throws SQLException {
+        model.connectTo(database.getURL());
+        List<List<Object>> result = model.search("account", "8288");
+        //id  nickname  username  password
+        //2   Shawn     cst8288   8288
+        assertEquals(1, result.size());
+        assertEquals(Arrays.asList(2L, "Shawn", "cst8288", "8288"), result.get(0));
+    }
+
+    @Test
+    public void testSearchDateRange() throws SQLException {
+        model.connectTo(database.getURL());
+        //the two images of March 2021, matched by the date column and not by the text
+        List<List<Object>> result = model.search("image", "2021-03");
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).get(0));
+        assertEquals(2, result.get(1).get(0));
+        assertEquals(0, model.search("image", "2021-04").size());
+    }
+
+    @Test
+    public void testGetAll() throws SQLException {
+        model.connectTo(database.getURL());
+        List<List<Object>> result = model.getAll("account");
+        //id  nickname       username    password
+        //1   administrator  admin       admin
+        //2   Shawn          cst8288     8288
+        assertEquals(2, result.size());
+        assertEquals(Arrays.asList(1L, "administrator", "admin", "admin"), result.get(0));
+        assertEquals(Arrays.asList(2L, "Shawn", "cst8288", "8288"), result.get(1));
+    }
+
+    @Test
+    public void testSearchStreaming() throws SQLException {
+        model.connectTo(database.getURL());
+        List<List<Object>> rows = new ArrayList<>();
+        //stop after the first row, the rest of the table must not be read
+        model.getAll("account", row -> {
+            rows.add(row);
+            return false;
+        });
+        assertEquals(1, rows.size());
+        assertEquals(Long.valueOf(1), rows.get(0).get(0));
+    }
+
+    @Test
+    public void errorTestSetFetchSize() {
+        assertThrows(IllegalArgumentException.class, () -> model.setFetchSize(-5));
+    }
+
+    @Test
+    public void testGetAllResult() throws SQLException {
+        model.connectTo(database.getURL());
+        ResultTable result = model.getAllResult("account");
+        //same rows as testGetAll, read through the columnar accessors
+        assertEquals(4, result.getColumnCount());
+        assertEquals("id", result.getColumnName(0));
+        assertEquals(1L, result.getLong(0, 0));
+        assertEquals("administrator", result.getString(0, 1));
+        assertEquals(Long.valueOf(2), result.getObject(1, 0));
+        assertEquals("8288", result.row(1).getString(3));
+        assertEquals(model.getAll("account").size(), result.getRowCount());
+    }
+
+    @Test
+    public void testUpdate() throws SQLException {
+        model.connectTo(database.getURL());
+        model.update("account", "2", "nickname", "Shawn Ni");
+        try (Statement statement = database.getConnection().createStatement();
+                ResultSet rs = statement.executeQuery("select nickname from account where id = 2")) {
+            assertTrue(rs.next());
+            assertEquals("Shawn Ni", rs.getString(1));
+        }
+    }
+
+    @Test
+    public void errorTestUpdateWithoutPrimaryKey() throws SQLException {
+        database.execute("create table note(owner varchar(45) not null, text varchar(100) not null)");
+        database.execute("insert into note values ('Shawn', 'a'), ('Shawn', 'b')");
+        model.connectTo(database.getURL());
+        //keyed on the first column this would overwrite both rows
+        assertThrows(IllegalArgumentException.class, () -> model.update("note", "Shawn", "text", "c"));
+        assertEquals(Arrays.asList(Arrays.asList("Shawn", "a"), Arrays.asList("Shawn", "b")), model.getAll("note"));
+    }
+
+    @Test
+    public void errorTestEditBufferWithoutPrimaryKey() throws SQLException {
+        database.execute("create table note(owner varchar(45) not null, text varchar(100) not null)");
+        model.connectTo(database.getURL());
+        assertThrows(IllegalArgumentException.class, () -> model.createEditBuffer("note"));
+        assertEquals(Collections.singletonList("id"), model.createEditBuffer("account").getKeyColumns());
+    }
+
+    @Test
+    public void testApplyEditsInOneTransaction() throws SQLException {
+        model.connectTo(database.getURL());
+        EditBuffer buffer = new EditBuffer("account", Collections.singletonList("id"));
+        buffer.put(Collections.singletonList(1L), "nickname", "admin2");
+        buffer.put(Collections.singletonList(2L), "nickname", "Shawn2");
+        buffer.put(Collections.singletonList(2L), "username", "shawn");
+        assertEquals(3, model.applyEdits(buffer));
+        assertTrue(buffer.isEmpty());
+        //one update operation for all of them, sent as two batches, one per column
+        assertEquals(1, model.getMetrics().getLatency(Operation.UPDATE).getCount());
+        assertEquals(Arrays.asList(Arrays.asList(1L, "admin2", "admin", "admin"),
+                Arrays.asList(2L, "Shawn2", "shawn", "8288")), model.getAll("account"));
+    }
+
+    @Test
+    public void errorTestApplyEditsRollsBack() throws SQLException {
+        model.connectTo(database.getURL());
+        EditBuffer buffer = new EditBuffer("account", Collections.singletonList("id"));
+        buffer.put(Collections.singletonList(1L), "nickname", "admin2");
+        //username is not null, the second batch fails after the first one was sent
+        buffer.put(Collections.singletonList(2L), "username", null);
+        assertThrows(SQLException.class, () -> model.applyEdits(buffer));
+        assertEquals(1, model.getMetrics().getErrorCount(Operation.UPDATE));
+        //the first batch is rolled back and both edits are still pending
+        assertEquals(2, buffer.size());
+        try (Statement statement = database.getConnection().createStatement();
+                ResultSet rs = statement.executeQuery("select nickname from account where id = 1")) {
+            assertTrue(rs.next());
+            assertEquals("administrator", rs.getString(1));
+        }
+        //the pooled connection is back in auto commit, the next edit is not part of the failed transaction
+        buffer.clear();
+        buffer.put(Collections.singletonList(2L), "nickname", "Shawn2");
+        assertEquals(1, model.applyEdits(buffer));
+        assertEquals("administrator", model.search("account", "admin").get(0).get(1));
+    }
+
+    @Test
+    public void errorTestApplyEditsKeyMatchesOneRow() throws SQLException {
+        database.execute("create table note(owner varchar(45) not null, text varchar(100) not null)");
+        database.execute("insert into note values ('Shawn', 'a'), ('Shawn', 'b'), ('Jane', 'c')");
+        model.connectTo(database.getURL());
+        //a key given by hand that is not unique would overwrite both rows of Shawn
+        EditBuffer notes = new EditBuffer("note", Collections.singletonList("owner"));
+        notes.put(Collections.singletonList("Jane"), "text", "d");
+        notes.put(Collections.singletonList("Shawn"), "text", "e");
+        assertThrows(SQLException.class, () -> model.applyEdits(notes));
+        assertEquals(2, notes.size());
+        assertEquals(Arrays.asList(Arrays.asList("Shawn", "a"), Arrays.asList("Shawn", "b"),
+                Arrays.asList("Jane", "c")), model.getAll("note"));
+        //a row deleted since it was read matches nothing, the other edits are rolled back too
+        EditBuffer accounts = model.createEditBuffer("account");
+        accounts.put(Collections.singletonList(1L), "nickname", "admin2");
+        accounts.put(Collections.singletonList(99L), "nickname", "gone");
+        assertThrows(SQLException.class, () -> model.applyEdits(accounts));
+        assertEquals("administrator", model.getAll("account").get(0).get(1));
+        assertEquals(2, model.getMetrics().getErrorCount(Operation.UPDATE));
+    }
+
+    @Test
+    public void testEditBufferKeyIndexes() throws SQLException {
+        model.connectTo(database.getURL());
+        ResultTable result = model.getAllResult("account");
+        EditBuffer buffer = new EditBuffer("account", Arrays.asList("ID", "username"));
+        int[] keyIndexes = buffer.getKeyIndexes(result.getColumnNames());
+        assertTrue(Arrays.equals(new int[] { 0, 2 }, keyIndexes));
+        assertEquals(null, buffer.getKeyIndexes(Arrays.asList("id", "nickname")));
+        buffer.put(Arrays.asList(2L, "cst8288"), "nickname", "Shawn2");
+        assertEquals("Shawn2", buffer.getValue(result.row(1), 1, keyIndexes));
+        assertEquals("administrator", buffer.getValue(result.row(0), 1, keyIndexes));
+        assertEquals(buffer.getValue(result.row(1), 1), buffer.getValue(result.row(1), 1, keyIndexes));
+        //without the key columns the value in the row is shown
+        assertEquals("Shawn", buffer.getValue(result.row(1), 1, null));
+    }
+
+    @Test
+    public void testRowMapper() throws SQLException {
+        database.execute("create table typed(id bigint primary key, small smallint, flag boolean, ratio double,"
+                + " price decimal(10, 2), born date, data varbinary(8), note varchar(20))");
+        database.execute("insert into typed values (1, 7, true, 0.5, 12.34, '2021-03-16', X'0102', 'a'),"
+                + " (2, null, null, null, null, null, null, null)");
+        //the typed getters must give back what getObject does, nulls included
+        for (String table : Arrays.asList("typed", "image")) {
+            try (Statement statement = database.getConnection().createStatement();
+                    ResultSet rs = statement.executeQuery("select * from " + table + " order by id")) {
+                //the columns in reverse, so the values must follow the list and not the result
+                List<String> columns = new ArrayList<>();
+                ResultSetMetaData meta = rs.getMetaData();
+                for (int i = meta.getColumnCount(); i >= 1; i--) {
+                    columns.add(meta.getColumnLabel(i));
+                }
+                RowMapper mapper = RowMapper.create(rs, columns);
+                while (rs.next()) {
+                    List<Object> row = mapper.mapRow(rs);
+                    assertEquals(columns.size(), row.size());
+                    for (int i = 0; i < columns.size(); i++) {
+                        Object expected = rs.getObject(columns.get(i));
+                        if (expected instanceof byte[]) {
+                            assertTrue(Arrays.equals((byte[]) expected, (byte[]) row.get(i)));
+                        } else {
+                            assertEquals(expected, row.get(i), table + " column " + columns.get(i));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWorkloadPools() throws SQLException, IOException {
+        //the same database through another URL, so edits get a pool of their own
+        String editURL = database.getURL() + ";LOCK_TIMEOUT=5000";
+        Map<Workload, String> urls = new EnumMap<>(Workload.class);
+        urls.put(Workload.EXPORT, database.getURL());
+        urls.put(Workload.EDIT, editURL);
+        model.connectTo(database.getURL(), urls);
+        assertEquals(Collections.singletonMap(Workload.EDIT, editURL), model.getWorkloadURLs());
+        model.update("account", "2", "nickname", "Shawn Ni");
+        assertEquals("Shawn Ni", model.search("account", "cst8288").get(0).get(1));
+        assertEquals(2, model.export("account", "", directory.resolve("account.csv"), ExportFormat.CSV, null, null));
+        model.close();
+        assertTrue(model.getWorkloadURLs().isEmpty());
+    }
+
+    @Test
+    public void testMetrics() throws SQLException, JMException {
+        model.connectTo(database.getURL());
+        model.search("account", "8288");
+        model.getAllResult("account");
+        QueryMetrics metrics = model.getMetrics();
+        assertEquals(1, metrics.getLatency(Operation.CONNECT).getCount());
+        assertEquals(2, metrics.getLatency(Operation.SEARCH).getCount());
+        assertEquals(2, metrics.getLatency(Operation.EXTRACT).getCount());
+        assertEquals(3, metrics.getRowsFetched());
+        assertEquals(2, metrics.getLastQuery().getRows());
+        assertThrows(SQLException.class, () -> model.update("account", "1", "nickname", null));
+        assertEquals(1, metrics.getErrorCount(Operation.UPDATE));
+
+        model.registerMBeans("TestModel");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(3L, server.getAttribute(new ObjectName("dbreader:type=Model,name=\"TestModel\""),
+                    "RowsFetched"));
+            assertEquals(2L, server.getAttribute(
+                    new ObjectName("dbreader:type=Operation,model=\"TestModel\",name=search"), "Count"));
+        } finally {
+            model.unregisterMBeans();
+        }
+    }
+
+    @Test
+    public void testSlowQueryLog() throws SQLException, IOException {
+        Path file = directory.resolve("slow.log");
+        model.connectTo(database.getURL());
+        //every search is slow with a threshold of 0
+        model.setSlowQueryLog(file, 0);
+        model.search("account", "8288");
+        model.setSlowQueryLog(null, 0);
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(text.contains("table=account"), text);
+        assertTrue(text.contains("rows=1"), text);
+        assertTrue(text.contains("select * from account where id = ? or nickname like ?"), text);
+        assertTrue(text.contains("# parameters: [8288, %8288%, %8288%, %8288%]"), text);
+        assertTrue(text.contains("# explain:"), text);
+        assertFalse(text.contains("explain failed"), text);
+    }
+
+}
@@ -0,0 +1,90 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * the model against a SQLite file, with a mixed case table and a column named by a reserved word that only work
+ * when they are quoted.
+ */
+public class TestModelSQLite {
+    private static final int ROWS = 50;
+
+    @TempDir
+    public Path directory;
+    private JDBCModel model;
+    private String url;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        url = "jdbc:sqlite:" + directory.resolve("redditreader.db");
+        try (Connection connection = DriverManager.getConnection(url);
+                Statement statement = connection.createStatement()) {
+            statement.execute("create table \"Post\"(id integer primary key, \"Title\" varchar(100) not null,"
+                    + " \"order\" int not null)");
+            for (int i = 1; i <= ROWS; i++) {
+                statement.execute("insert into \"Post\" values (" + i + ", 'post " + i + "', " + (ROWS - i) + ")");
+            }
+        }
+        model = new JDBCModel();
+        model.connectTo(url);
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        model.close();
+    }
+
+    @Test
+    public void testSearch() throws SQLException {
+        assertEquals(Arrays.asList("id", "Title", "order"), model.getAndInitializeColumnNames("Post"));
+        List<List<Object>> result = model.search("Post", "post 42");
+        assertEquals(1, result.size());
+        assertEquals(Arrays.asList(42, "post 42", 8), result.get(0));
+        assertEquals(ROWS, model.count("Post"));
+    }
+
+    @Test
+    public void testSearchStreaming() throws SQLException {
+        List<List<Object>> rows = new ArrayList<>();
+        model.getAll("Post", row -> {
+            rows.add(row);
+            return rows.size() < 3;
+        });
+        assertEquals(3, rows.size());
+    }
+
+    @Test
+    public void testFetchPage() throws SQLException {
+        ResultTable first = model.fetchPage("Post", "order", null, 10);
+        assertEquals(10, first.getRowCount());
+        assertEquals(0, firstOrder(first));
+        assertEquals(10, firstOrder(model.fetchPage("Post", "order", 9, 10)));
+        assertEquals(5, firstOrder(model.fetchPageBefore("Post", "order", 10, 5)));
+        assertEquals(20, firstOrder(model.fetchPageAt("Post", "order", 20, 5)));
+    }
+
+    //the SQLite driver does not report column classes, so every column is kept as objects
+    private static int firstOrder(ResultTable page) {
+        return ((Number) page.getObject(0, 2)).intValue();
+    }
+
+    @Test
+    public void testUpdate() throws SQLException {
+        model.update("Post", "1", "Title", "edited");
+        assertTrue(model.search("Post", "edited").get(0).contains("edited"));
+    }
+}
@@ -0,0 +1,77 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * the model against a generated table in a database on disk, 20000 rows by default. run with
+ * -Ddbreader.scale.rows=2000000 or more to test at scale, the checks do not depend on the size.
+ */
+public class TestModelScale {
+    private static final int ROWS = Integer.getInteger("dbreader.scale.rows", 20_000);
+    private static final int TEXT_LENGTH = 200;
+    private static final int BLOB_BYTES = 512;
+
+    @TempDir
+    public static Path directory;
+    private static EmbeddedDatabase database;
+    private static JDBCModel model;
+
+    @BeforeAll
+    public static void setup() throws SQLException {
+        database = new EmbeddedDatabase(directory).generate("big", ROWS, 4, TEXT_LENGTH, BLOB_BYTES);
+        model = database.createModel();
+        model.connectTo(database.getURL());
+        model.getResultCache().setLimits(0, 0);
+    }
+
+    @AfterAll
+    public static void teardown() throws SQLException {
+        model.close();
+        database.close();
+    }
+
+    @Test
+    public void testCount() throws SQLException {
+        assertEquals(ROWS, model.count("big"));
+    }
+
+    @Test
+    public void testStreamingReadsEveryRow() throws SQLException {
+        AtomicLong rows = new AtomicLong();
+        AtomicLong blobBytes = new AtomicLong();
+        model.getAll("big", row -> {
+            rows.incrementAndGet();
+            blobBytes.addAndGet(((Blob) row.get(7)).length());
+            return true;
+        });
+        assertEquals(ROWS, rows.get());
+        assertEquals(ROWS * (long) BLOB_BYTES, blobBytes.get());
+    }
+
+    @Test
+    public void testSearchText() throws SQLException {
+        //the last row is the only one whose id starts with its own id
+        ResultTable result = model.searchResult("big", "row" + ROWS);
+        assertEquals(1, result.getRowCount());
+        assertEquals(ROWS, result.getLong(0, 0));
+        assertEquals(TEXT_LENGTH, result.getString(0, 3).length());
+    }
+
+    @Test
+    public void testSearchDate() throws SQLException {
+        //created is 2021-01-01 plus id minutes, so ids 1 to 1439 fall on the first day
+        ResultTable result = model.searchResult("big", "2021-01-01");
+        assertEquals(Math.min(ROWS, 1439), result.getRowCount());
+        assertTrue(result.estimateBytes() > 0);
+    }
+}
@@ -0,0 +1,125 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestResultCache {
+    private EmbeddedDatabase database;
+    private ResultCache cache;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase().seedRedditReader();
+        cache = new ResultCache();
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        database.close();
+    }
+
+    private ResultTable read(String table) throws SQLException {
+        try (PreparedStatement ps = database.getConnection().prepareStatement("select * from " + table);
+                ResultSet rs = ps.executeQuery()) {
+            ResultTable result = new ResultTable(rs.getMetaData());
+            while (rs.next()) {
+                result.appendRow(rs);
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void testHit() throws SQLException {
+        ResultTable account = read("account");
+        assertNull(cache.get("account", "admin"));
+        cache.put("account", " admin ", account, cache.getVersion());
+        //the term is trimmed, but the search mode is part of the key
+        assertSame(account, cache.get("account", "admin"));
+        assertNull(cache.get("account", SearchMode.FULLTEXT, "admin"));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(account.estimateBytes(), cache.getBytes());
+    }
+
+    @Test
+    public void testEvictionByEntries() throws SQLException {
+        cache.setLimits(2, ResultCache.DEFAULT_MAX_BYTES);
+        cache.put("account", "", read("account"), cache.getVersion());
+        cache.put("host", "", read("host"), cache.getVersion());
+        //account becomes the most recently used, so host is the one dropped
+        cache.get("account", "");
+        cache.put("board", "", read("board"), cache.getVersion());
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("host", ""));
+        assertEquals(read("account").estimateBytes() + read("board").estimateBytes(), cache.getBytes());
+    }
+
+    @Test
+    public void testEvictionByBytes() throws SQLException {
+        ResultTable image = read("image");
+        long size = image.estimateBytes();
+        cache.setLimits(ResultCache.DEFAULT_MAX_ENTRIES, size * 2);
+        cache.put("image", "a", image, cache.getVersion());
+        cache.put("image", "b", read("image"), cache.getVersion());
+        assertEquals(2, cache.getSize());
+        cache.put("image", "c", read("image"), cache.getVersion());
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("image", "a"));
+        assertEquals(size * 2, cache.getBytes());
+        //a result bigger than the whole budget is not kept and evicts nothing
+        cache.setLimits(ResultCache.DEFAULT_MAX_ENTRIES, size - 1);
+        assertEquals(0, cache.getSize());
+        cache.put("image", "d", read("image"), cache.getVersion());
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void testStalePutRejected() throws SQLException {
+        cache.put("host", "", read("host"), cache.getVersion());
+        //a query started before the table was written to must not store what it read
+        long version = cache.getVersion();
+        ResultTable account = read("account");
+        cache.invalidate("account");
+        cache.put("account", "", account, version);
+        assertNull(cache.get("account", ""));
+        //the other tables are kept
+        assertEquals(1, cache.getSize());
+        cache.put("account", "", account, cache.getVersion());
+        assertSame(account, cache.get("account", ""));
+    }
+
+    @Test
+    public void testApplyEditsInvalidatesTable() throws SQLException {
+        JDBCModel model = database.createModel();
+        try {
+            model.connectTo(database.getURL());
+            ResultTable account = model.searchResult("account", "");
+            ResultTable host = model.searchResult("host", "");
+            assertSame(account, model.searchResult("account", ""));
+            EditBuffer buffer = new EditBuffer("account", Collections.singletonList("id"));
+            buffer.put(Collections.singletonList(2L), "nickname", "Shawn2");
+            assertEquals(1, model.applyEdits(buffer));
+            assertSame(host, model.getResultCache().get("host", ""));
+            ResultTable updated = model.searchResult("account", "");
+            assertNotSame(account, updated);
+            assertEquals("Shawn2", updated.getString(1, 1));
+        } finally {
+            model.close();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestRowIndex {
+    private static final int ROWS = 500;
+    private static final String LETTERS = "abcdeABCDE ";
+
+    private EmbeddedDatabase database;
+    private ResultTable result;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase();
+        database.execute("create table word(id int primary key, head varchar(40), tail varchar(40),"
+                + " amount int not null)");
+        //few letters so the trigrams are shared by many rows and the intersections have work to do
+        Random random = new Random(8288);
+        try (PreparedStatement ps = database.getConnection()
+                .prepareStatement("insert into word values (?, ?, ?, ?)")) {
+            for (int id = 0; id < ROWS; id++) {
+                ps.setInt(1, id);
+                ps.setString(2, id % 10 == 0 ? null : randomText(random));
+                ps.setString(3, randomText(random));
+                ps.setInt(4, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        result = read("word");
+    }
+
+    private ResultTable read(String table) throws SQLException {
+        try (PreparedStatement ps = database.getConnection().prepareStatement("select * from " + table
+                + " order by id");
+                ResultSet rs = ps.executeQuery()) {
+            ResultTable words = new ResultTable(rs.getMetaData());
+            while (rs.next()) {
+                words.appendRow(rs);
+            }
+            return words;
+        }
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        database.close();
+    }
+
+    private static String randomText(Random random) {
+        char[] text = new char[5 + random.nextInt(20)];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+        }
+        return new String(text);
+    }
+
+    //what the index must find, every row checked one by one
+    private int[] scan(String term) {
+        String lower = term.trim().toLowerCase(Locale.ROOT);
+        int[] found = new int[ROWS];
+        int size = 0;
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 1; col <= 2; col++) {
+                String value = result.getString(row, col);
+                if (value != null && value.toLowerCase(Locale.ROOT).contains(lower)) {
+                    found[size++] = row;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    private RowIndex createIndex() {
+        RowIndex index = new RowIndex();
+        //in batches, the way rows are indexed while they stream in
+        for (int from = 0; from < ROWS; from += 64) {
+            index.addRows(result, from, Math.min(ROWS, from + 64));
+        }
+        return index;
+    }
+
+    @Test
+    public void testSameRowsAsScan() {
+        RowIndex index = createIndex();
+        assertEquals(ROWS, index.getIndexedRowCount());
+        Random random = new Random(16);
+        for (int i = 0; i < 200; i++) {
+            String term = randomText(random).substring(0, 3 + random.nextInt(3));
+            assertArrayEquals(scan(term), index.search(term), term);
+        }
+        //terms cut out of the cells, so most of them have hits
+        for (int row = 1; row < ROWS; row += 7) {
+            String value = result.getString(row, 2);
+            String term = value.substring(1, Math.min(value.length(), 6));
+            int[] found = index.search(term);
+            assertArrayEquals(scan(term), found, term);
+            assertTrue(Arrays.binarySearch(found, row) >= 0, term);
+        }
+    }
+
+    @Test
+    public void testTrigramsInDifferentColumns() throws SQLException {
+        database.execute("create table split(id int primary key, head varchar(10), tail varchar(10))");
+        database.execute("insert into split values (1, 'abcx', 'bcdy'), (2, 'xABCDx', 'q'), (3, 'bcda', 'q')");
+        ResultTable split = read("split");
+        RowIndex index = new RowIndex();
+        index.addRows(split, 0, split.getRowCount());
+        //the first and the third row hold both trigrams of the term, but not the term itself
+        assertArrayEquals(new int[] { 1 }, index.search("abcd"));
+        assertArrayEquals(new int[] { 0, 1, 2 }, index.search("bcd"));
+    }
+
+    @Test
+    public void testShortTerms() {
+        RowIndex index = createIndex();
+        //shorter than a trigram, every row is checked
+        for (String term : Arrays.asList("a", "B", "ab", "Ec", "e ")) {
+            assertArrayEquals(scan(term), index.search(term), term);
+        }
+        int[] all = index.search("  ");
+        assertEquals(ROWS, all.length);
+        assertEquals(ROWS - 1, all[ROWS - 1]);
+    }
+
+    @Test
+    public void testNonTextTermsGoToDatabase() {
+        RowIndex index = createIndex();
+        //the database also matches these on the numeric and date columns, or reads the wildcards
+        for (String term : Arrays.asList("42", "3.5", "2021-03-16", "10:15", "ab%c", "a_b")) {
+            assertNull(index.search(term), term);
+        }
+        assertFalse(index.isDisabled());
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        RowIndex measure = new RowIndex();
+        measure.addRows(result, 0, 10);
+        //just enough for the first rows
+        RowIndex index = new RowIndex(measure.estimateBytes());
+        index.addRows(result, 0, 10);
+        assertFalse(index.isDisabled());
+        assertEquals(measure.estimateBytes(), index.estimateBytes());
+        index.addRows(result, 10, ROWS);
+        assertTrue(index.isDisabled());
+        assertEquals(0, index.estimateBytes());
+        assertNull(index.search("abc"));
+        //an empty term would list every row, but a disabled index answers nothing
+        assertNull(index.search(""));
+    }
+
+    @Test
+    public void errorTestAddRows() throws SQLException {
+        RowIndex index = new RowIndex();
+        assertNull(index.search("abc"));
+        index.addRows(result, 0, 10);
+        //a batch passed twice is skipped
+        index.addRows(result, 0, 10);
+        assertEquals(10, index.getIndexedRowCount());
+        assertThrows(IllegalArgumentException.class, () -> index.addRows(result, 20, 30));
+        //an index belongs to one result
+        ResultTable other = read("word");
+        assertThrows(IllegalStateException.class, () -> index.addRows(other, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new RowIndex(-1));
+    }
+}
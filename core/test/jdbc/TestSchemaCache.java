@@ -0,0 +1,75 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestSchemaCache {
+    private SchemaCache cache;
+    private long now;
+    private int loads;
+
+    @BeforeEach
+    public void setup() {
+        now = 0;
+        loads = 0;
+        cache = new SchemaCache(1000, () -> now);
+    }
+
+    private TableSchema load(String table) {
+        loads++;
+        return new TableSchema("redditreader", table,
+                Arrays.asList(new TableSchema.Column("id", Types.BIGINT, "BIGINT", false),
+                        new TableSchema.Column("name", Types.VARCHAR, "VARCHAR", true)),
+                Collections.singletonList("id"));
+    }
+
+    @Test
+    public void testSwitchingTablesHitsCache() throws SQLException {
+        TableSchema account = cache.getSchema("redditreader", "account", () -> load("account"));
+        cache.getSchema("redditreader", "board", () -> load("board"));
+        assertSame(account, cache.getSchema("redditreader", "account", () -> load("account")));
+        cache.getSchema("redditreader", "board", () -> load("board"));
+        assertEquals(2, loads);
+        assertEquals(Collections.singletonList("id"), account.getPrimaryKeys());
+        assertEquals(account.getPrimaryKeys(), account.getRowKeyColumns());
+        assertEquals(Types.VARCHAR, account.getJdbcType(1));
+    }
+
+    @Test
+    public void testExpiredEntryIsReloaded() throws SQLException {
+        cache.getSchema("redditreader", "account", () -> load("account"));
+        now = 999;
+        cache.getSchema("redditreader", "account", () -> load("account"));
+        assertEquals(1, loads);
+        now = 1000;
+        cache.getSchema("redditreader", "account", () -> load("account"));
+        assertEquals(2, loads);
+    }
+
+    @Test
+    public void testInvalidate() throws SQLException {
+        cache.getSchema("redditreader", "account", () -> load("account"));
+        cache.getSchema("other", "account", () -> load("account"));
+        cache.invalidate("redditreader", "account");
+        cache.getSchema("redditreader", "account", () -> load("account"));
+        cache.getSchema("other", "account", () -> load("account"));
+        assertEquals(3, loads);
+        cache.invalidateAll();
+        cache.getSchema("other", "account", () -> load("account"));
+        assertEquals(4, loads);
+    }
+
+    @Test
+    public void errorTestNegativeTTL() {
+        assertThrows(IllegalArgumentException.class, () -> cache.setTTL(-1));
+    }
+}
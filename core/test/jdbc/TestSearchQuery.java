@@ -0,0 +1,84 @@
+package jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+
+public class TestSearchQuery {
+    private final TableSchema schema = new TableSchema("redditreader", "post",
+            Arrays.asList(new TableSchema.Column("id", Types.INTEGER, "INT", false),
+                    new TableSchema.Column("title", Types.VARCHAR, "VARCHAR", true),
+                    new TableSchema.Column("points", Types.DECIMAL, "DECIMAL", true),
+                    new TableSchema.Column("date", Types.TIMESTAMP, "DATETIME", true),
+                    new TableSchema.Column("image", Types.LONGVARBINARY, "BLOB", true)),
+            Collections.singletonList("id"));
+
+    @Test
+    public void testEmptyTermHasNoWhereClause() {
+        SearchQuery query = SearchQuery.of(schema, "  ");
+        assertEquals("select * from post", query.buildSQL("post", schema.getColumnNames()));
+        assertEquals(0, query.getParameters().size());
+    }
+
+    @Test
+    public void testTextOnlyMatchesTextColumns() {
+        SearchQuery query = SearchQuery.of(schema, "java");
+        assertEquals("-L---", query.getShape());
+        assertEquals("select * from post where title like ?", query.buildSQL("post", schema.getColumnNames()));
+        assertEquals(Collections.singletonList("%java%"), query.getParameters());
+    }
+
+    @Test
+    public void testNumberUsesEqualityAndDateRange() {
+        SearchQuery query = SearchQuery.of(schema, "2021");
+        assertEquals("ELER-", query.getShape());
+        assertEquals("select * from post where id = ? or title like ? or points = ? or (date >= ? and date < ?)",
+                query.buildSQL("post", schema.getColumnNames()));
+        assertEquals(Arrays.asList(2021L, "%2021%", new BigDecimal("2021"), Timestamp.valueOf("2021-01-01 00:00:00"),
+                Timestamp.valueOf("2022-01-01 00:00:00")), query.getParameters());
+    }
+
+    @Test
+    public void testDecimalIsNotComparedWithIntegers() {
+        assertEquals("-LE--", SearchQuery.of(schema, "1.5").getShape());
+    }
+
+    @Test
+    public void testNoMatchingColumn() {
+        TableSchema numbers = new TableSchema("redditreader", "numbers",
+                Collections.singletonList(new TableSchema.Column("id", Types.BIGINT, "BIGINT", false)),
+                Collections.singletonList("id"));
+        assertEquals("select * from numbers where 1 = 0",
+                SearchQuery.of(numbers, "java").buildSQL("numbers", numbers.getColumnNames()));
+    }
+
+    @Test
+    public void testFullTextMatchesEveryIndex() {
+        TableSchema indexed = new TableSchema("redditreader", "post", Arrays.asList(
+                new TableSchema.Column("id", Types.INTEGER, "INT", false),
+                new TableSchema.Column("title", Types.VARCHAR, "VARCHAR", true),
+                new TableSchema.Column("body", Types.LONGVARCHAR, "TEXT", true)),
+                Collections.singletonList("id"),
+                Arrays.asList(Arrays.asList("title", "body"), Collections.singletonList("body")));
+        SearchQuery query = SearchQuery.of(indexed, "java", SearchMode.FULLTEXT);
+        assertEquals("select * from post where match(title, body) against (? in natural language mode)"
+                + " or match(body) against (? in natural language mode)"
+                + " order by match(title, body) against (? in natural language mode)"
+                + " + match(body) against (? in natural language mode) desc",
+                query.buildSQL("post", indexed.getColumnNames()));
+        assertEquals(Arrays.asList("java", "java", "java", "java"), query.getParameters());
+        //too short for the index
+        assertEquals("-LL", SearchQuery.of(indexed, "go", SearchMode.FULLTEXT).getShape());
+    }
+
+    @Test
+    public void testFullTextFallsBackToLike() {
+        assertEquals("-L---", SearchQuery.of(schema, "java", SearchMode.FULLTEXT).getShape());
+    }
+}
@@ -0,0 +1,51 @@
+package jdbc.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+
+public class TestJDBCURLBuilder {
+
+    private static JDBCURLBuilder create(String dbType, String address, String catalog) {
+        JDBCURLBuilder builder = JDBCURLBuilderFactory.create(dbType);
+        builder.setAddress(address);
+        builder.setPort(builder.getDefaultPort());
+        builder.setCatalog(catalog);
+        return builder;
+    }
+
+    @Test
+    public void testMySQL() {
+        JDBCURLBuilder builder = create("mysql", "localhost", "redditreader");
+        builder.addURLProperty("useUnicode", "true");
+        assertEquals("jdbc:mysql://localhost:3306/redditreader?useUnicode=true", builder.getURL());
+    }
+
+    @Test
+    public void testPostgreSQL() {
+        JDBCURLBuilder builder = create("postgresql", "db.example.com", "redditreader");
+        builder.addURLProperty("ssl", "false");
+        assertEquals("jdbc:postgresql://db.example.com:5432/redditreader?ssl=false", builder.getURL());
+    }
+
+    @Test
+    public void testSQLite() {
+        assertEquals("jdbc:sqlite:/tmp/redditreader.db", create("sqlite", "", "/tmp/redditreader.db").getURL());
+    }
+
+    @Test
+    public void testH2() {
+        JDBCURLBuilder builder = create("h2", "localhost", "redditreader");
+        builder.addURLProperty("MODE", "MySQL");
+        assertEquals("jdbc:h2:tcp://localhost:9092/redditreader;MODE=MySQL", builder.getURL());
+        //no address opens the files in this process
+        assertEquals("jdbc:h2:./redditreader", create("h2", "", "./redditreader").getURL());
+    }
+
+    @Test
+    public void errorTestCreate() {
+        assertThrows(IllegalArgumentException.class, () -> JDBCURLBuilderFactory.create("oracle"));
+    }
+}
@@ -0,0 +1,63 @@
+package jdbc.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+
+public class TestMySQLProfile {
+
+    private static MySQLURLBuilder createBuilder() {
+        MySQLURLBuilder builder = new MySQLURLBuilder();
+        builder.setAddress("localhost");
+        builder.setPort(3306);
+        builder.setCatalog("redditreader");
+        return builder;
+    }
+
+    @Test
+    public void testGetURL() {
+        MySQLURLBuilder builder = createBuilder();
+        builder.addURLProperty("serverTimezone", "UTC");
+        builder.setProfile(Workload.EDIT, MySQLProfile.BULK_EDIT);
+        //the profile comes first, then the properties added by hand
+        assertEquals("jdbc:mysql://localhost:3306/redditreader?rewriteBatchedStatements=true"
+                + "&useServerPrepStmts=false&cachePrepStmts=true&prepStmtCacheSize=64&tcpSndBuf=1048576"
+                + "&serverTimezone=UTC", builder.getURL(Workload.EDIT));
+        //workloads without a profile
+        assertEquals("jdbc:mysql://localhost:3306/redditreader?serverTimezone=UTC", builder.getURL());
+        assertEquals(builder.getURL(), builder.getURL(Workload.EXPORT));
+    }
+
+    @Test
+    public void errorTestGetURLConflict() {
+        MySQLURLBuilder builder = createBuilder();
+        builder.setProfile(Workload.EXPORT, MySQLProfile.BULK_EXPORT);
+        builder.addURLProperty("useCompression", "false");
+        assertThrows(IllegalStateException.class, () -> builder.getURL(Workload.EXPORT));
+        //the same value is not a conflict
+        builder.addURLProperty("useCompression", "true");
+        builder.getURL(Workload.EXPORT);
+    }
+
+    @Test
+    public void testForName() {
+        assertSame(MySQLProfile.INTERACTIVE, MySQLProfile.forName("Low-Latency Interactive"));
+        assertSame(MySQLProfile.BULK_EXPORT, MySQLProfile.forName("bulk export"));
+        assertThrows(IllegalArgumentException.class, () -> MySQLProfile.forName("fast"));
+    }
+
+    @Test
+    public void errorTestBuild() {
+        assertThrows(IllegalArgumentException.class, () -> MySQLProfile.builder("x").prepStmtCacheSize(0));
+        //a cache size without the cache
+        assertThrows(IllegalStateException.class, () -> MySQLProfile.builder("x").prepStmtCacheSize(10).build());
+        //a fetch size without a cursor is ignored by the driver
+        assertThrows(IllegalStateException.class, () -> MySQLProfile.builder("x").defaultFetchSize(10).build());
+        assertThrows(IllegalStateException.class, () -> MySQLProfile.builder("x").useCursorFetch(true).build());
+        assertThrows(IllegalStateException.class, () -> MySQLProfile.builder("x").useCursorFetch(true)
+                .defaultFetchSize(10).useServerPrepStmts(false).build());
+    }
+}
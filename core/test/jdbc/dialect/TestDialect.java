@@ -0,0 +1,70 @@
+package jdbc.dialect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+
+
+public class TestDialect {
+
+    @Test
+    public void testCreate() {
+        assertTrue(DialectFactory.create("jdbc:mysql://localhost:3306/redditreader") instanceof MySQLDialect);
+        assertTrue(DialectFactory.create("jdbc:postgresql://localhost/redditreader") instanceof PostgreSQLDialect);
+        assertTrue(DialectFactory.create("jdbc:sqlite:redditreader.db") instanceof SQLiteDialect);
+        assertTrue(DialectFactory.create("jdbc:h2:mem:redditreader") instanceof H2Dialect);
+        assertEquals("generic", DialectFactory.create("jdbc:derby:redditreader").getName());
+    }
+
+    @Test
+    public void testQuoteIdentifier() {
+        Dialect mysql = new MySQLDialect();
+        //names that read the same without quotes are left alone
+        assertEquals("Host_id", mysql.quoteIdentifier("Host_id"));
+        assertEquals("`order`", mysql.quoteIdentifier("order"));
+        assertEquals("`first name`", mysql.quoteIdentifier("first name"));
+        assertEquals("`a``b`", mysql.quoteIdentifier("a`b"));
+    }
+
+    @Test
+    public void testQuoteIdentifierFolding() throws SQLException {
+        //H2 stores unquoted names in upper case by default
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:", "sa", "")) {
+            Dialect h2 = DialectFactory.create("jdbc:h2:mem:");
+            h2.init(connection.getMetaData());
+            assertEquals("ACCOUNT", h2.quoteIdentifier("ACCOUNT"));
+            assertEquals("\"account\"", h2.quoteIdentifier("account"));
+            assertEquals("\"Host_id\"", h2.quoteIdentifier("Host_id"));
+        }
+    }
+
+    @Test
+    public void testLikeCaseInsensitive() throws SQLException {
+        assertTrue(new MySQLDialect().isLikeCaseInsensitive());
+        assertFalse(new PostgreSQLDialect().isLikeCaseInsensitive());
+        //the flag must say what the database really does
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:", "sa", "");
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("select 'Reddit' like 'reddit'")) {
+            assertTrue(rs.next());
+            assertEquals(rs.getBoolean(1), DialectFactory.create("jdbc:h2:mem:").isLikeCaseInsensitive());
+        }
+    }
+
+    @Test
+    public void testPage() {
+        Dialect dialect = new PostgreSQLDialect();
+        assertEquals("select * from t order by id limit ?", dialect.limit("select * from t order by id"));
+        assertEquals("select * from t order by id limit ? offset ?",
+                dialect.limitOffset("select * from t order by id"));
+        assertEquals("explain query plan select 1", new SQLiteDialect().explain("select 1"));
+    }
+}
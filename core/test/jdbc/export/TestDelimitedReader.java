@@ -0,0 +1,63 @@
+package jdbc.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+public class TestDelimitedReader {
+    private static final List<List<String>> ROWS = Arrays.asList(Arrays.asList("id", "title", "body"),
+            Arrays.asList("1", "say \"hi\", bye", "line\nbreak"), Arrays.asList("2", "a\tb", "back\\slash\r\n"),
+            Arrays.asList("3", "", "caf\u00e9 \uD83D\uDE00"));
+
+    @TempDir
+    public Path directory;
+
+    //what DelimitedWriter writes comes back the same
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (ExportFormat format : ExportFormat.values()) {
+            Path file = directory.resolve("rows." + format.getExtension());
+            try (DelimitedWriter writer = DelimitedWriter.open(file, format)) {
+                for (List<String> row : ROWS) {
+                    writer.writeRow(row);
+                }
+            }
+            try (DelimitedReader reader = DelimitedReader.open(file, format)) {
+                for (List<String> row : ROWS) {
+                    assertEquals(row, reader.readRow(), format.name());
+                }
+                assertNull(reader.readRow());
+            }
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLineNumbers() throws IOException {
+        try (DelimitedReader reader = new DelimitedReader(new StringReader("a,\"x\ny\"\nb\n"), ExportFormat.CSV)) {
+            assertEquals(Arrays.asList("a", "x\ny"), reader.readRow());
+            assertEquals(3, reader.getLineNumber());
+            assertEquals(Arrays.asList("b"), reader.readRow());
+        }
+    }
+
+    @Test
+    public void errorTestReadRow() throws IOException {
+        try (DelimitedReader reader = new DelimitedReader(new StringReader("1,\"open"), ExportFormat.CSV)) {
+            assertThrows(IOException.class, reader::readRow);
+        }
+        try (DelimitedReader reader = new DelimitedReader(new StringReader("1\t\\x"), ExportFormat.TSV)) {
+            assertThrows(IOException.class, reader::readRow);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package jdbc.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestDelimitedWriter {
+    private Path file;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        file = Files.createTempFile("export", ".txt");
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private String read() throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testCSVQuoting() throws IOException {
+        try (DelimitedWriter writer = DelimitedWriter.open(file, ExportFormat.CSV)) {
+            writer.writeRow(Arrays.asList("id", "title"));
+            writer.writeRow(Arrays.asList(1, "say \"hi\", bye"));
+            writer.writeRow(Arrays.asList(2, null));
+        }
+        assertEquals("id,title\r\n1,\"say \"\"hi\"\", bye\"\r\n2,\r\n", read());
+    }
+
+    @Test
+    public void testTSVEscaping() throws IOException {
+        try (DelimitedWriter writer = DelimitedWriter.open(file, ExportFormat.TSV)) {
+            writer.writeRow(Arrays.asList("a\tb", "line\nbreak", "back\\slash"));
+        }
+        assertEquals("a\\tb\tline\\nbreak\tback\\\\slash\n", read());
+    }
+
+    @Test
+    public void testLargeOutputCrossesBuffers() throws IOException {
+        //a character needing a surrogate pair lands on every buffer boundary sooner or later
+        String value = "\uD83D\uDE00 caf\u00e9 " + "x".repeat(100);
+        long bytes;
+        try (DelimitedWriter writer = DelimitedWriter.open(file, ExportFormat.CSV)) {
+            for (int i = 0; i < 5000; i++) {
+                writer.writeRow(Arrays.asList(i, value));
+            }
+            writer.close(true);
+            assertEquals(5000, writer.getRowCount());
+            bytes = writer.getBytesWritten();
+        }
+        assertEquals(Files.size(file), bytes);
+        String[] lines = read().split("\r\n");
+        assertEquals(5000, lines.length);
+        assertEquals("4999," + value, lines[4999]);
+    }
+
+    @Test
+    public void testFormatForFileName() {
+        assertEquals(ExportFormat.TSV, ExportFormat.forFileName("rows.TSV"));
+        assertEquals(ExportFormat.CSV, ExportFormat.forFileName("rows.txt"));
+    }
+}
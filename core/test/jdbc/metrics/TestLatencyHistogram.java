@@ -0,0 +1,53 @@
+package jdbc.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+
+public class TestLatencyHistogram {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMillis());
+        assertEquals(0, histogram.getPercentileMillis(0.99));
+    }
+
+    @Test
+    public void testPercentilesAreBucketBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        //90 fast queries of 1.5ms and 10 slow ones of 100ms
+        for (int i = 0; i < 90; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(1500));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(11.35, histogram.getMeanMillis(), 1e-9);
+        assertEquals(100, histogram.getMaxMillis(), 1e-9);
+        //1500us falls in the bucket from 1024us to 2048us
+        assertEquals(2.048, histogram.getPercentileMillis(0.5), 1e-9);
+        assertEquals(2.048, histogram.getPercentileMillis(0.9), 1e-9);
+        //the bucket of 100ms ends at 131ms, but nothing slower than 100ms was recorded
+        assertEquals(100, histogram.getPercentileMillis(0.95), 1e-9);
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMillis());
+    }
+
+    @Test
+    public void errorTestPercentile() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().getPercentileMillis(1.5));
+    }
+}
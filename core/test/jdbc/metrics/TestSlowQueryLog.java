@@ -0,0 +1,73 @@
+package jdbc.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+public class TestSlowQueryLog {
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void testOnlySlowQueriesAreLogged() throws IOException {
+        Path file = directory.resolve("slow.log");
+        try (SlowQueryLog log = new SlowQueryLog(file, 100)) {
+            assertFalse(log.log("account", "select * from account", Collections.emptyList(),
+                    TimeUnit.MILLISECONDS.toNanos(99), 2, null));
+            assertTrue(log.log("account", "select * from account where nickname like ?",
+                    Collections.singletonList("%Shawn%"), SLOW, 1, (sql, parameters) -> Arrays.asList("id\ttype",
+                            "1\tALL")));
+        }
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(text.contains("table=account time=200.0ms rows=1"));
+        assertTrue(text.contains("select * from account where nickname like ?"));
+        assertTrue(text.contains("# parameters: [%Shawn%]"));
+        assertTrue(text.contains("#   1\tALL"));
+    }
+
+    @Test
+    public void testFailedExplainKeepsEntry() throws IOException {
+        Path file = directory.resolve("slow.log");
+        try (SlowQueryLog log = new SlowQueryLog(file, 0)) {
+            log.log("account", "select 1", Collections.emptyList(), SLOW, 1, (sql, parameters) -> {
+                throw new SQLException("no connection");
+            });
+        }
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(text.contains("select 1"));
+        assertTrue(text.contains("# explain failed: no connection"));
+    }
+
+    @Test
+    public void testRotation() throws IOException {
+        Path file = directory.resolve("slow.log");
+        //every entry is bigger than the limit, so each one starts a new file
+        try (SlowQueryLog log = new SlowQueryLog(file, 0, 10, 3)) {
+            for (int i = 0; i < 5; i++) {
+                log.log("t" + i, "select " + i, Collections.emptyList(), SLOW, i, null);
+            }
+            log.close();
+            assertEquals(5, log.getLoggedCount());
+        }
+        assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("select 4"));
+        assertTrue(new String(Files.readAllBytes(directory.resolve("slow.log.1")), StandardCharsets.UTF_8)
+                .contains("select 3"));
+        assertTrue(new String(Files.readAllBytes(directory.resolve("slow.log.2")), StandardCharsets.UTF_8)
+                .contains("select 2"));
+        assertFalse(Files.exists(directory.resolve("slow.log.3")));
+    }
+}
@@ -0,0 +1,142 @@
+package jdbc.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import jdbc.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestConnectionPool {
+    private EmbeddedDatabase database;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase().seedRedditReader();
+        pool = new ConnectionPool(database.getURL(), EmbeddedDatabase.USER, EmbeddedDatabase.PASS);
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        pool.close();
+        database.close();
+    }
+
+    private static int sessionId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("select session_id()")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    public void testMaxSize() throws SQLException {
+        pool.setSize(1, 2).setBorrowTimeout(100).start();
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        assertEquals(2, pool.getActiveCount());
+        assertEquals(2, pool.getTotalCount());
+        assertThrows(SQLException.class, pool::borrow);
+        //giving one back makes room, the same connection is handed out again
+        int id = sessionId(first);
+        first.close();
+        try (Connection third = pool.borrow()) {
+            assertEquals(id, sessionId(third));
+            assertEquals(2, pool.getTotalCount());
+        }
+        second.close();
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(2, pool.getIdleCount());
+    }
+
+    @Test
+    public void errorTestBorrowTimeout() throws SQLException {
+        pool.setSize(1, 1).setBorrowTimeout(200).start();
+        try (Connection held = pool.borrow()) {
+            long start = System.nanoTime();
+            SQLException e = assertThrows(SQLException.class, pool::borrow);
+            assertTrue((System.nanoTime() - start) / 1_000_000 >= 190, e.getMessage());
+            assertTrue(e.getMessage().contains("timed out"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testValidationOnBorrow() throws SQLException, InterruptedException {
+        pool.setSize(1, 1).start();
+        int id;
+        try (Connection connection = pool.borrow()) {
+            id = sessionId(connection);
+        }
+        database.execute("call abort_session(" + id + ")");
+        //connections given back a moment ago are trusted without a round trip
+        Thread.sleep(600);
+        try (Connection connection = pool.borrow()) {
+            assertFalse(id == sessionId(connection));
+        }
+        assertEquals(1, pool.getTotalCount());
+    }
+
+    @Test
+    public void testIdleEviction() throws SQLException, InterruptedException {
+        pool.setSize(1, 3).setIdleTimeout(50).start();
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            connections.add(pool.borrow());
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        assertEquals(3, pool.getIdleCount());
+        Thread.sleep(100);
+        pool.houseKeep();
+        //down to the minimum size, not below
+        assertEquals(1, pool.getTotalCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testLeakReporting() throws SQLException, InterruptedException {
+        List<Exception> traces = new ArrayList<>();
+        pool.setSize(1, 2).setLeakThreshold(50).setLeakDetection(true)
+                .setLeakListener((heldMillis, borrowTrace) -> traces.add(borrowTrace)).start();
+        try (Connection connection = pool.borrow()) {
+            Thread.sleep(100);
+            pool.houseKeep();
+            //reported once per borrow
+            pool.houseKeep();
+            assertEquals(1, traces.size());
+            assertEquals(1, pool.getLeakCount());
+            assertNotNull(traces.get(0));
+            assertEquals("testLeakReporting", traces.get(0).getStackTrace()[1].getMethodName());
+        }
+    }
+
+    @Test
+    public void testLeakWithoutDetection() throws SQLException, InterruptedException {
+        List<Exception> traces = new ArrayList<>();
+        pool.setSize(1, 2).setLeakThreshold(50).setLeakListener((heldMillis, borrowTrace) -> traces.add(borrowTrace))
+                .start();
+        try (Connection connection = pool.borrow()) {
+            Thread.sleep(100);
+            pool.houseKeep();
+        }
+        //still counted, but no stack trace was taken on borrow
+        assertEquals(1, pool.getLeakCount());
+        assertEquals(1, traces.size());
+        assertNull(traces.get(0));
+    }
+}
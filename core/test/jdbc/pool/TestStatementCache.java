@@ -0,0 +1,178 @@
+package jdbc.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import jdbc.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+public class TestStatementCache {
+    private static final String SELECT_ACCOUNT = "select nickname from account where id = ?";
+    private static final String SELECT_HOST = "select name from host where id = ?";
+
+    private EmbeddedDatabase database;
+    private Connection connection;
+    private AtomicLong hits;
+    private AtomicLong misses;
+    private AtomicLong closeErrors;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabase().seedRedditReader();
+        connection = DriverManager.getConnection(database.getURL(), EmbeddedDatabase.USER, EmbeddedDatabase.PASS);
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        closeErrors = new AtomicLong();
+    }
+
+    @AfterEach
+    public void teardown() throws SQLException {
+        connection.close();
+        database.close();
+    }
+
+    private StatementCache createCache(int maxSize) {
+        return new StatementCache(maxSize, hits, misses, closeErrors);
+    }
+
+    private PreparedStatement prepare(StatementCache cache, String sql) throws SQLException {
+        return cache.prepare(connection, connection, new Object[] { sql });
+    }
+
+    private static String first(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    @Test
+    public void testHit() throws SQLException {
+        StatementCache cache = createCache(4);
+        PreparedStatement physical;
+        try (PreparedStatement ps = prepare(cache, SELECT_ACCOUNT)) {
+            physical = ps.unwrap(PreparedStatement.class);
+            ps.setLong(1, 2);
+            assertEquals("Shawn", first(ps));
+        }
+        try (PreparedStatement ps = prepare(cache, SELECT_ACCOUNT)) {
+            assertSame(physical, ps.unwrap(PreparedStatement.class));
+            assertSame(connection, ps.getConnection());
+            ps.setLong(1, 1);
+            assertEquals("administrator", first(ps));
+        }
+        assertEquals(1, hits.get());
+        assertEquals(1, misses.get());
+        //the cached statement stays open for the next prepare
+        assertFalse(physical.isClosed());
+        cache.close();
+        assertTrue(physical.isClosed());
+    }
+
+    @Test
+    public void testDuplicateInUse() throws SQLException {
+        StatementCache cache = createCache(4);
+        PreparedStatement cached = prepare(cache, SELECT_ACCOUNT);
+        PreparedStatement duplicate = prepare(cache, SELECT_ACCOUNT);
+        //the second one is a plain statement of the driver, closing it really closes it
+        assertFalse(Proxy.isProxyClass(duplicate.getClass()));
+        assertTrue(Proxy.isProxyClass(cached.getClass()));
+        assertEquals(2, misses.get());
+        duplicate.setLong(1, 1);
+        cached.setLong(1, 2);
+        assertEquals("administrator", first(duplicate));
+        assertEquals("Shawn", first(cached));
+        duplicate.close();
+        assertTrue(duplicate.isClosed());
+        PreparedStatement physical = cached.unwrap(PreparedStatement.class);
+        cached.close();
+        try (PreparedStatement ps = prepare(cache, SELECT_ACCOUNT)) {
+            assertSame(physical, ps.unwrap(PreparedStatement.class));
+        }
+        assertEquals(1, hits.get());
+        cache.close();
+    }
+
+    @Test
+    public void testEvictionOfStatementInUse() throws SQLException {
+        StatementCache cache = createCache(1);
+        PreparedStatement account = prepare(cache, SELECT_ACCOUNT);
+        PreparedStatement physical = account.unwrap(PreparedStatement.class);
+        //the least recently used statement is evicted but it is still in use, so it stays open
+        try (PreparedStatement host = prepare(cache, SELECT_HOST)) {
+            host.setInt(1, 1);
+            assertEquals("reddit", first(host));
+        }
+        assertFalse(physical.isClosed());
+        account.setLong(1, 2);
+        assertEquals("Shawn", first(account));
+        //and is closed when it is given back
+        account.close();
+        assertTrue(physical.isClosed());
+        try (PreparedStatement ps = prepare(cache, SELECT_ACCOUNT)) {
+            assertNotSame(physical, ps.unwrap(PreparedStatement.class));
+        }
+        assertEquals(0, hits.get());
+        assertEquals(3, misses.get());
+        assertEquals(0, closeErrors.get());
+        cache.close();
+    }
+
+    @Test
+    public void testGiveBackResets() throws SQLException {
+        StatementCache cache = createCache(4);
+        try (PreparedStatement ps = prepare(cache, "select id from account where id > ? order by id")) {
+            ps.setLong(1, 0);
+            ps.setMaxRows(1);
+            ps.setFetchSize(1);
+            ps.setQueryTimeout(5);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                assertFalse(rs.next());
+            }
+        }
+        try (PreparedStatement ps = prepare(cache, "select id from account where id > ? order by id")) {
+            assertEquals(1, hits.get());
+            assertEquals(0, ps.getMaxRows());
+            assertEquals(0, ps.getQueryTimeout());
+            //the parameter of the last borrower is cleared
+            assertThrows(SQLException.class, ps::executeQuery);
+            ps.setLong(1, 0);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                assertTrue(rs.next());
+            }
+        }
+        cache.close();
+    }
+
+    @Test
+    public void errorTestClosedHandle() throws SQLException {
+        StatementCache cache = createCache(4);
+        PreparedStatement ps = prepare(cache, SELECT_ACCOUNT);
+        ps.close();
+        assertTrue(ps.isClosed());
+        assertThrows(SQLException.class, () -> ps.setLong(1, 1));
+        //closing the old handle again must not give the statement back a second time
+        PreparedStatement next = prepare(cache, SELECT_ACCOUNT);
+        ps.close();
+        try (PreparedStatement duplicate = prepare(cache, SELECT_ACCOUNT)) {
+            assertFalse(Proxy.isProxyClass(duplicate.getClass()));
+        }
+        next.close();
+        cache.close();
+    }
+}
@@ -4,6 +4,7 @@ import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.ListView;
 import javafx.scene.control.PasswordField;
@@ -67,4 +68,11 @@ public abstract class CommonGUIBuilder {
         GridPane.setHgrow(node, Priority.ALWAYS);
         return node;
     }
+
+    public static CheckBox createCheckBox(String name, boolean selected) {
+        CheckBox node = new CheckBox(name);
+        node.setSelected(selected);
+        GridPane.setHgrow(node, Priority.ALWAYS);
+        return node;
+    }
 }
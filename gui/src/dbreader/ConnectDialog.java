@@ -6,6 +6,8 @@ import static common.CommonGUIBuilder.createListView;
 import static common.CommonGUIBuilder.createPasswordField;
 import static common.CommonGUIBuilder.createTextField;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 
 import javafx.collections.FXCollections;
@@ -22,6 +24,10 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.GridPane;
 import javafx.util.Pair;
 import jdbc.JDBCController;
+import jdbc.builder.JDBCURLBuilder;
+import jdbc.builder.JDBCURLBuilderFactory;
+import jdbc.builder.MySQLProfile;
+import jdbc.builder.Workload;
 
 /**
  * ConnectDialog class
@@ -42,6 +48,10 @@ public class ConnectDialog {
      * password used in the DB
      */
     private static final String PASSWORD = "8288";
+    /**
+     * item of the profile lists that removes the profile
+     */
+    private static final String NO_PROFILE = "none";
 
     private Dialog<ButtonType> dialog;
     private JDBCController controller;
@@ -52,6 +62,8 @@ public class ConnectDialog {
     private TextField userText;
     private PasswordField passText;
     private ObservableList< Pair< String, String>> properties;
+    //MySQL profile of each workload, nothing chosen keeps the profile given on the command line
+    private Map<Workload, ComboBox<String>> profileCombos;
 
     private TextField keyText;
     private TextField valueText;
@@ -81,12 +93,26 @@ public class ConnectDialog {
         //1.1 && 1.2
         Optional<ButtonType> result = dialog.showAndWait();
         if (result.isPresent() && !result.get().getButtonData().isCancelButton()) {
+            //a new builder for the chosen type, so properties of an earlier connection are not kept
+            String dbType = dbTypeCombo.getValue();
+            controller.setURLBuilder(JDBCURLBuilderFactory.create(dbType));
             //1.3
             controller.setDataBase(hostText.getText(), portText.getText(), dbNameText.getText());
             //1.4
-            controller.addConnectionURLProperty(keyText.getText(), valueText.getText());
-            //1.5
-            controller.addConnectionURLProperty("useUnicode", "true");
+            if (!keyText.getText().isEmpty()) {
+                controller.addConnectionURLProperty(keyText.getText(), valueText.getText());
+            }
+            //1.5 the other databases use unicode anyway, H2 rejects settings it does not know
+            if ("mysql".equals(dbType)) {
+                controller.addConnectionURLProperty("useUnicode", "true");
+            }
+            for (Map.Entry<Workload, ComboBox<String>> profile : profileCombos.entrySet()) {
+                String name = profile.getValue().getValue();
+                if (name != null) {
+                    controller.setProfile(profile.getKey(),
+                            NO_PROFILE.equals(name) ? null : MySQLProfile.forName(name));
+                }
+            }
             //1.6
             controller.setCredentials(userText.getText(), passText.getText());
             //1.7
@@ -99,7 +125,8 @@ public class ConnectDialog {
     private void createGUI() {
         dialog.setTitle(TITLE);
 
-        dbTypeCombo = createComboBox(FXCollections.observableArrayList("mysql"), "DB Type", 0);
+        dbTypeCombo = createComboBox(FXCollections.observableArrayList(JDBCURLBuilderFactory.getDBTypes()),
+                "DB Type", 0);
         hostText = createTextField("localhost", "Host Name");
         portText = createTextField("3306", "Port Number");
         dbNameText = createTextField("redditreader", "DB Name");
@@ -108,6 +135,16 @@ public class ConnectDialog {
         keyText = createTextField("serverTimezone", "Key");
         valueText = createTextField("UTC", "Value");
         ListView<Pair<String, String>> propertiesList = createListView(properties, 165);
+        profileCombos = new EnumMap<>(Workload.class);
+        ObservableList<String> profileNames = FXCollections.observableArrayList(NO_PROFILE);
+        for (MySQLProfile profile : MySQLProfile.getProfiles()) {
+            profileNames.add(profile.getName());
+        }
+        for (Workload workload : Workload.values()) {
+            String workloadName = workload.name().charAt(0) + workload.name().substring(1).toLowerCase();
+            profileCombos.put(workload, createComboBox(profileNames, workloadName + " Profile", -1));
+        }
+        dbTypeCombo.valueProperty().addListener((value, oldType, newType) -> dbTypeChanged(newType));
 
         Button addProperty = createButton("Add",
                 e -> properties.add(new Pair<>(keyText.getText(), valueText.getText())));
@@ -125,6 +162,9 @@ public class ConnectDialog {
         grid.add(userText, 0, 4);
         grid.add(passText, 0, 5);
         grid.add(propertiesList, 1, 0, 2, 6);
+        grid.add(profileCombos.get(Workload.INTERACTIVE), 0, 6);
+        grid.add(profileCombos.get(Workload.EXPORT), 1, 6);
+        grid.add(profileCombos.get(Workload.EDIT), 2, 6);
         grid.add(keyText, 0, 7);
         grid.add(valueText, 1, 7);
         grid.add(addProperty, 2, 7);
@@ -132,4 +172,22 @@ public class ConnectDialog {
         dialog.getDialogPane().getButtonTypes().addAll(connectButton, ButtonType.CANCEL);
         dialog.getDialogPane().setContent(grid);
     }
+
+    //default port of the type, SQLite is a file so it has no host or port and its DB name is the path of the file
+    private void dbTypeChanged(String dbType) {
+        JDBCURLBuilder builder = JDBCURLBuilderFactory.create(dbType);
+        boolean file = builder.getDefaultPort() == 0;
+        portText.setText(Integer.toString(builder.getDefaultPort()));
+        hostText.setDisable(file);
+        portText.setDisable(file);
+        dbNameText.setPromptText(file ? "DB File" : "DB Name");
+        //serverTimezone is a MySQL property
+        boolean mysql = "mysql".equals(dbType);
+        keyText.setText(mysql ? "serverTimezone" : "");
+        valueText.setText(mysql ? "UTC" : "");
+        //profiles are sets of Connector/J properties
+        for (ComboBox<String> profileCombo : profileCombos.values()) {
+            profileCombo.setDisable(!mysql);
+        }
+    }
 }
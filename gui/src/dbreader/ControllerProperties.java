@@ -0,0 +1,52 @@
+package dbreader;
+
+import java.sql.SQLException;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import jdbc.JDBCController;
+
+/**
+ * ControllerProperties class
+ * JavaFX side of a {@link JDBCController}, which itself has no UI dependency. the table in use is a property that
+ * can be bound to a combo box and is passed on to the controller when it changes, the table names are kept in an
+ * observable list the combo box shows. only used on JavaFX thread.
+ *
+ * @author Juan Ni
+ *
+ */
+public class ControllerProperties {
+    private final JDBCController controller;
+    private final StringProperty tableUse;
+    private final ObservableList<String> tableNameList;
+
+    public ControllerProperties(JDBCController controller) {
+        this.controller = controller;
+        tableNameList = FXCollections.observableArrayList();
+        tableUse = new SimpleStringProperty();
+        tableUse.addListener((value, oldValue, newValue) -> controller.setTableInUse(newValue));
+    }
+
+    public JDBCController getController() {
+        return controller;
+    }
+
+    public StringProperty tableInUseProperty() {
+        return tableUse;
+    }
+
+    //the same list every time, filled again with the names of the tables when the controller is connected
+    public ObservableList<String> getTableNames() throws SQLException {
+        if (controller.isConnected()) {
+            tableNameList.setAll(controller.getTableNames());
+        }
+        return tableNameList;
+    }
+
+    //drop the cached table names and schemas and read the table names again
+    public ObservableList<String> refreshSchema() throws SQLException {
+        controller.refreshSchema();
+        return getTableNames();
+    }
+}
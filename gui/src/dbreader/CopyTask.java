@@ -0,0 +1,115 @@
+package dbreader;
+
+import java.sql.SQLException;
+
+import javafx.concurrent.Task;
+import jdbc.EditBuffer;
+import jdbc.ResultTable;
+
+/**
+ * CopyTask class
+ * Builds the clipboard text of the selected rows off JavaFX thread. the rows are read here too, so a selection of
+ * rows not loaded yet is read page by page without holding up JavaFX thread. rows are written whole, in row order,
+ * one line per row with the selected columns separated by tabs. the text stops at the last row that fits in maxChars
+ * so a huge selection can not use up the heap, {@link #isTruncated()} tells when that happened.
+ *
+ * @author Juan Ni
+ *
+ */
+public class CopyTask extends Task<String> {
+    /**
+     * default limit of the copied text, about 32MB of chars
+     */
+    public static final int DEFAULT_MAX_CHARS = 16 * 1024 * 1024;
+    //rows between two progress updates
+    private static final int PROGRESS_STEP = 1000;
+
+    private final int[] rows;
+    private final RowSource source;
+    private final int[] columns;
+    private final EditBuffer edits;
+    private final int maxChars;
+    private volatile int copiedRows;
+    private volatile boolean truncated;
+
+    /**
+     * @param rows - indexes of the rows to copy in order
+     * @param source - reads a row by index on the copying thread, a null row is copied as empty fields
+     * @param columns - indexes of the columns to copy in the rows, in the order they are shown
+     * @param edits - pending edits shown instead of the stored values, null if the rows can not be edited
+     */
+    public CopyTask(int[] rows, RowSource source, int[] columns, EditBuffer edits, int maxChars) {
+        this.rows = rows;
+        this.source = source;
+        this.columns = columns;
+        this.edits = edits;
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    protected String call() throws Exception {
+        StringBuilder text = new StringBuilder();
+        StringBuilder line = new StringBuilder();
+        //all rows come from the same select, so the key columns of the edits are looked up once
+        int[] keyIndexes = null;
+        boolean resolved = false;
+        for (int i = 0; i < rows.length; i++) {
+            if (isCancelled()) {
+                return null;
+            }
+            ResultTable.Row row = source.getRow(rows[i]);
+            if (row != null && edits != null && !resolved) {
+                keyIndexes = edits.getKeyIndexes(row.getTable().getColumnNames());
+                resolved = true;
+            }
+            line.setLength(0);
+            for (int c = 0; c < columns.length; c++) {
+                if (c > 0) {
+                    line.append('\t');
+                }
+                Object value = row == null ? null
+                        : edits == null ? row.getObject(columns[c]) : edits.getValue(row, columns[c], keyIndexes);
+                if (value != null) {
+                    line.append(value);
+                }
+            }
+            //the line break of the row before counts too
+            if (text.length() + line.length() + 1 > maxChars) {
+                truncated = true;
+                break;
+            }
+            if (i > 0) {
+                text.append('\n');
+            }
+            text.append(line);
+            copiedRows = i + 1;
+            if (copiedRows % PROGRESS_STEP == 0) {
+                updateProgress(copiedRows, rows.length);
+                updateMessage("copying: " + copiedRows + " of " + rows.length + " rows");
+            }
+        }
+        updateProgress(copiedRows, rows.length);
+        return text.toString();
+    }
+
+    public int getRowCount() {
+        return rows.length;
+    }
+
+    public int getCopiedRows() {
+        return copiedRows;
+    }
+
+    //true if the rows did not fit in maxChars and only the first getCopiedRows were copied
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * where the copied rows are read from, called on the copying thread.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        ResultTable.Row getRow(int index) throws SQLException;
+    }
+}
@@ -0,0 +1,863 @@
+package dbreader;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.management.JMException;
+import common.CommonGUIBuilder;
+import javafx.animation.PauseTransition;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableColumn.CellDataFeatures;
+import javafx.scene.control.TableColumn.CellEditEvent;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToolBar;
+import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+import jdbc.CatalogSearchResult;
+import jdbc.EditBuffer;
+import jdbc.JDBCController;
+import jdbc.KeysetPager;
+import jdbc.QueryFuture;
+import jdbc.QueryHandle;
+import jdbc.ResultTable;
+import jdbc.RowIndex;
+import jdbc.SearchMode;
+import jdbc.builder.JDBCURLBuilderFactory;
+import jdbc.builder.MySQLProfile;
+import jdbc.builder.Workload;
+import jdbc.export.ExportFormat;
+
+/**
+ * Assignment 1
+ * Finished by Juan Ni on Feb 15, 2021
+ * Finished bonus on March 1, 2021
+ * 
+ * @author Shahriar (Shawn) Emami
+ * 
+ */
+public class DBReader extends Application {
+
+    /**
+     * width of the scene
+     */
+    private static final double WIDTH = 800;
+    /**
+     * height of the scene
+     */
+    private static final double HEIGHT = 600;
+    /**
+     * title of the application
+     */
+    private static final String TITLE = "JDBC Viewer";
+    /**
+     * time without typing before a live search starts, can be changed with --searchDelay=millis
+     */
+    private static final long DEFAULT_SEARCH_DELAY_MILLIS = 300;
+    /**
+     * searches slower than this are written to the slow query log given with --slowQueryLog=file
+     */
+    private static final long DEFAULT_SLOW_QUERY_MILLIS = 1000;
+
+    /**
+     * {@link BorderPane} is a layout manager that manages all nodes in 5 areas as below:
+     * 
+     * <pre>
+     * -----------------------
+     * |        top          |
+     * -----------------------
+     * |    |          |     |
+     * |left|  center  |right|
+     * |    |          |     |
+     * -----------------------
+     * |       bottom        |
+     * -----------------------
+     * </pre>
+     * 
+     * this object is passed to {@link Scene} object in {@link JDBCViewerV2#start(Stage)} method.
+     */
+    private BorderPane root;
+    private Label conectionStatus;
+    //time and rows of the last query, on the right of the status bar
+    private Label queryStatus;
+    private TableView<ResultTable.Row> table;
+    private JDBCController controller;
+    //table in use and table names of the controller as JavaFX properties
+    private ControllerProperties properties;
+    private ConnectDialog dialog;
+    private TextField searchText;
+    private CheckBox pagedCheck;
+    private CheckBox liveCheck;
+    private long searchDelayMillis;
+    private KeysetPager pager;
+    private QueryFuture<ResultTable> runningSearch;
+    //pending cell edits per table, written by the save button
+    private Map<String, EditBuffer> editBuffers = new HashMap<>();
+    //index of the rows of the last finished search, later searches of the same table whose term contains
+    //its term are answered from it in memory
+    private RowIndex localIndex;
+    private String localIndexTable;
+    private String localIndexTerm;
+    //tables with matching rows found by the last catalog search, in the order they were found
+    private ObservableList<String> catalogHitTables = FXCollections.observableArrayList();
+    private Map<String, ResultTable> catalogHits = new HashMap<>();
+    private QueryFuture<CatalogSearchResult> runningCatalogSearch;
+    private QueryFuture<Long> runningExport;
+    private CopyTask runningCopy;
+    //pending edits of the table shown, the copied text shows them like the cells do. null for read only tables
+    private EditBuffer shownEdits;
+
+    /**
+     * this method is called at the very beginning of the JavaFX application and can be used to initialize all
+     * components in the application. however, {@link Scene} and {@link Stage} must not be created in this method. this
+     * method does not run JavaFX thread, it runs on JavaFX-Launcher thread.
+     */
+    @Override
+    public void init() throws Exception {
+
+        String delay = getParameters().getNamed().get("searchDelay");
+        searchDelayMillis = delay == null ? DEFAULT_SEARCH_DELAY_MILLIS : Long.parseLong(delay);
+        //--leakDetection=true records where connections are borrowed, to find the code that does not give them back
+        boolean leakDetection = Boolean.parseBoolean(getParameters().getNamed().get("leakDetection"));
+        //--slowQueryLog=file logs the searches taking longer than --slowQueryMillis
+        String slowQueryLog = getParameters().getNamed().get("slowQueryLog");
+        String slowQueryMillis = getParameters().getNamed().get("slowQueryMillis");
+
+        //TODO initialize the controller and set the builder to it.
+        controller = new JDBCController();
+        controller.setURLBuilder(JDBCURLBuilderFactory.create());
+        //results of the asynchronous queries come back on JavaFX thread
+        controller.setCallbackExecutor(Platform::runLater);
+        properties = new ControllerProperties(controller);
+        if (slowQueryLog != null) {
+            controller.setSlowQueryLog(Paths.get(slowQueryLog),
+                    slowQueryMillis == null ? DEFAULT_SLOW_QUERY_MILLIS : Long.parseLong(slowQueryMillis));
+        }
+        //--interactiveProfile, --exportProfile and --editProfile pick a MySQL profile by name,
+        //for example --exportProfile="bulk export"
+        for (Workload workload : Workload.values()) {
+            String profile = getParameters().getNamed().get(workload.name().toLowerCase() + "Profile");
+            if (profile != null) {
+                controller.setProfile(workload, MySQLProfile.forName(profile));
+            }
+        }
+        //TODO initialize the dialog.
+        dialog = new ConnectDialog(controller);
+
+        //TableView has replaced the old WebView Node as the center of the application.
+        //TODO Initialize the table variable.
+        table = new TableView<>();
+        //TODO call TableView::setPlaceholder on table and pass to it a new Label with argument "No Data".
+        table.setPlaceholder(new Label("No Data"));
+
+        //bonus part: make the table to be editable, to be selected and selected multiple lines
+        table.setEditable(true);
+        table.getSelectionModel().setCellSelectionEnabled(true);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+        Region optionsBar = createOptionsBar();
+        Region statusBar = createStatusBar();
+
+        controller.setMetricsListener(summary -> queryStatus.setText(summary.toString()));
+        controller.setLeakDetection(leakDetection).setLeakListener((heldMillis, borrowTrace) -> {
+            queryStatus.setText("connection held for " + heldMillis + "ms, possible leak");
+            if (borrowTrace != null) {
+                borrowTrace.printStackTrace();
+            }
+        });
+        //the metrics can be watched with jconsole, without them the application still works
+        try {
+            controller.registerMetrics(TITLE);
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+
+        root = new BorderPane();
+        root.setRight(optionsBar);
+        root.setCenter(table);
+        root.setBottom(statusBar);
+    }
+
+    /**
+     * <p>
+     * this method is called when JavaFX application is started and it is running on JavaFX thread. this method must at
+     * least create {@link Scene} and finish customizing {@link Stage}. these two objects must be on JavaFX thread when
+     * created.
+     * </p>
+     * <p>
+     * {@link Stage} represents the frame of your application, such as minimize, maximize and close buttons.<br>
+     * {@link Scene} represents the holder of all your JavaFX {@link Node}s.<br>
+     * {@link Node} is the super class of every javaFX class.
+     * </p>
+     * 
+     * @param primaryStage - primary stage of your application that will be rendered
+     */
+    @Override
+    public void start(Stage primaryStage) throws Exception {
+        // dialog needs to be initialized in start as it needs to be on JavaFX thread.
+        dialog.init();
+        // scene holds all JavaFX components that need to be displayed in Stage
+        Scene scene = new Scene(root, WIDTH, HEIGHT);
+
+        // bonus part: copy the selected rows to the clipboard on Ctrl+C, the text is built off JavaFX thread
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.C, KeyCombination.CONTROL_ANY),
+                this::copySelection);
+        primaryStage.setScene(scene);
+        primaryStage.setTitle(TITLE);
+        primaryStage.setResizable(true);
+        // when escape key is pressed close the application
+        primaryStage.addEventHandler(KeyEvent.KEY_RELEASED, (KeyEvent event) -> {
+            if (KeyCode.ESCAPE == event.getCode()) {
+                primaryStage.hide();
+            }
+        });
+
+        // display the JavaFX application
+        primaryStage.show();
+    }
+
+    /**
+     * this method is called at the very end when the application is about to exit. this method is used to stop or
+     * release any resources used during the application.
+     */
+    @Override
+    public void stop() throws Exception {
+        cancelRunningSearch();
+        cancelCatalogSearch();
+        cancelExport();
+        closePager();
+        //TODO if controller is not null close it.
+        if (controller != null) {
+            controller.close();
+        }
+    }
+
+    /**
+     * create a {@link VBox} that represent the right side of the application.
+     * 
+     * @return customized {@link VBox} as subclass of {@link Region}.
+     * @throws SQLException
+     */
+    private Region createOptionsBar() throws SQLException {
+
+        //To create the TextField, ComboBox, and Button use the static methods
+        //from common.CommonGUIBuilder class.
+
+        //TODO create a TextField called searchText and pass to it "" and "Search Text"
+        searchText = CommonGUIBuilder.createTextField("", "Search Text");
+        //when checked, an empty search browses the whole table page by page instead of loading every row
+        pagedCheck = CommonGUIBuilder.createCheckBox("Browse by Page", true);
+        //when checked, the search starts by itself once the user stops typing for a moment
+        liveCheck = CommonGUIBuilder.createCheckBox("Search as You Type", true);
+        //FULLTEXT ranks the rows by relevance on tables with a FULLTEXT index, the others are searched with LIKE
+        ComboBox<SearchMode> modeCombo = CommonGUIBuilder.createComboBox(
+                FXCollections.observableArrayList(SearchMode.values()), "Search Mode",
+                controller.getSearchMode().ordinal());
+        modeCombo.getSelectionModel().selectedItemProperty().addListener((value, oldValue, newValue) -> {
+            if (newValue != null) {
+                controller.setSearchMode(newValue);
+            }
+        });
+        //TODO create a ComboBox<String> called tablesCombo and pass to it properties.getTableNames(), "Table", and 0
+        ComboBox<String> tablesCombo = CommonGUIBuilder.createComboBox(properties.getTableNames(), "Table", 0);
+        //TODO on properties call tableInUseProperty() and then call bind and pass to it tablesCombo.getSelectionModel().selectedItemProperty()
+        //this line of code binds the selected item in the combo box to the controllers tableInUseProperty.
+        //so whenever the user changes the table selection the controller also updates.
+        properties.tableInUseProperty().bind(tablesCombo.getSelectionModel().selectedItemProperty());
+
+        //TODO create a Button called connectButton and pass to it "Connect" and a lambda to be executed when clicked.
+        Button connectButton = CommonGUIBuilder.createButton("Connect", e -> {
+            //call setText on conectionStatus pass to it "connecting".
+            conectionStatus.setText("connecting");
+            //call dialog.showAndWait() if the result is false :
+            //call setText on conectionStatus pass to it "cancelled".
+            //if the result is true:
+            //call connect and then getTableNames on controller. we call getTableNames again just to update the names. the list is already connected to ComboBox.
+            //call setText on conectionStatus pass to it "connected".
+            boolean result = dialog.showAndWait();
+            if (!result) {
+                conectionStatus.setText("cancelled");
+                return;
+            }
+            //connecting runs on a query thread so the window stays responsive, the table names are
+            //already cached when it completes so getTableNames does not go back to the database.
+            controller.connectAsync().whenComplete((v, ex) -> {
+                try {
+                    if (ex != null) {
+                        throw ex;
+                    }
+                    properties.getTableNames();
+                    localIndex = null;
+                    conectionStatus.setText("connected");
+                } catch (Throwable t) {
+                    Throwable cause = unwrap(t);
+                    conectionStatus.setText("failed: " + cause.getMessage());
+                    cause.printStackTrace();
+                }
+            });
+        });
+
+        //TODO create a Button called searchButton and pass to it "Search" and a lambda to be executed when clicked.
+        Button searchButton = CommonGUIBuilder.createButton("Search", e -> {
+            String term = searchText.getText().trim();
+            String tableName = properties.tableInUseProperty().get();
+            EditBuffer edits;
+            boolean refinable;
+            //if controller is not connected call setText on conectionStatus pass to it "must connect first" and get out.
+            try {
+                if (!controller.isConnected()) {
+                    conectionStatus.setText("must connect first");
+                    return;
+                }
+                //a new search replaces the one still running, which is cancelled on the database
+                cancelRunningSearch();
+                //call setText on conectionStatus pass to it "searching".
+                conectionStatus.setText("searching");
+                edits = getEditBuffer();
+                //the index matches whatever the case, narrowing in memory must not find rows the database would not
+                refinable = controller.isLikeCaseInsensitive();
+                if (pagedCheck.isSelected() && term.isEmpty()) {
+                    populatePagedTable(edits);
+                    conectionStatus.setText("browsing");
+                    return;
+                }
+                if (searchLocally(term, edits)) {
+                    return;
+                }
+            } catch (SQLException ex) {
+                conectionStatus.setText("failed: " + ex.getMessage());
+                ex.printStackTrace();
+                return;
+            }
+            EditBuffer searchEdits = edits;
+            //the rows are indexed while they arrive, so narrowing the search later runs in memory
+            RowIndex index = refinable ? new RowIndex() : null;
+            //search runs on a query thread, rows are shown batch by batch while they arrive.
+            QueryFuture<ResultTable> search = controller.searchAsync(term, index,
+                    (result, from, to) -> {
+                        showResult(result, searchEdits);
+                        conectionStatus.setText("populating table: " + to + " rows");
+                    });
+            runningSearch = search;
+            search.whenComplete((result, ex) -> {
+                if (search != runningSearch) {
+                    return;
+                }
+                runningSearch = null;
+                Throwable cause = ex == null ? null : unwrap(ex);
+                if (cause instanceof CancellationException || QueryHandle.isCancellation(cause)) {
+                    return;
+                }
+                if (cause != null) {
+                    conectionStatus.setText("failed: " + cause.getMessage());
+                    cause.printStackTrace();
+                    return;
+                }
+                showResult(result, searchEdits);
+                if (index != null && !index.isDisabled()) {
+                    localIndex = index;
+                    localIndexTable = tableName;
+                    localIndexTerm = term;
+                }
+                //finally call setText on conectionStatus and pass to it "finished".
+                conectionStatus.setText("finished: " + result.getRowCount() + " rows");
+            });
+        });
+
+        //read the table names and schemas again, for example after a table was created or altered
+        Button refreshButton = CommonGUIBuilder.createButton("Refresh Tables", e -> {
+            try {
+                properties.refreshSchema();
+                localIndex = null;
+                conectionStatus.setText("tables refreshed");
+            } catch (SQLException ex) {
+                conectionStatus.setText("failed: " + ex.getMessage());
+                ex.printStackTrace();
+            }
+        });
+
+        //write all pending edits, each table in one transaction, then read the rows again
+        Button saveButton = CommonGUIBuilder.createButton("Save Edits", e -> {
+            if (pendingEdits() == 0) {
+                conectionStatus.setText("no pending edits");
+                return;
+            }
+            conectionStatus.setText("saving " + pendingEdits() + " edits");
+            List<CompletableFuture<Integer>> saves = new ArrayList<>();
+            boolean[] saved = new boolean[1];
+            for (EditBuffer buffer : editBuffers.values()) {
+                if (buffer.isEmpty()) {
+                    continue;
+                }
+                saves.add(controller.applyEditsAsync(buffer).whenComplete((rows, ex) -> {
+                    if (ex != null) {
+                        conectionStatus.setText("save failed: " + unwrap(ex).getMessage());
+                        ex.printStackTrace();
+                        return;
+                    }
+                    saved[0] = true;
+                    conectionStatus.setText("saved " + rows + " rows of " + buffer.getTable() + ", "
+                            + pendingEdits() + " edits pending");
+                }));
+            }
+            //read the rows again once, after every table is written
+            CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).whenComplete((done, ex) -> {
+                if (saved[0]) {
+                    //the rows in memory are out of date now
+                    localIndex = null;
+                    searchButton.fire();
+                }
+            });
+        });
+
+        Button discardButton = CommonGUIBuilder.createButton("Discard Edits", e -> {
+            editBuffers.values().forEach(EditBuffer::clear);
+            table.refresh();
+            conectionStatus.setText("edits discarded");
+        });
+
+        //search every table at once, each table with hits shows up in the list below as soon as it is searched
+        Button catalogButton = CommonGUIBuilder.createButton("Search All Tables", e -> {
+            try {
+                if (!controller.isConnected()) {
+                    conectionStatus.setText("must connect first");
+                    return;
+                }
+            } catch (SQLException ex) {
+                conectionStatus.setText("failed: " + ex.getMessage());
+                ex.printStackTrace();
+                return;
+            }
+            cancelCatalogSearch();
+            catalogHitTables.clear();
+            catalogHits.clear();
+            conectionStatus.setText("searching all tables");
+            QueryFuture<CatalogSearchResult> search = controller.searchCatalogAsync(searchText.getText().trim(),
+                    (tableName, hits) -> {
+                        catalogHits.put(tableName, hits);
+                        catalogHitTables.add(tableName);
+                        conectionStatus.setText("found rows in " + catalogHitTables.size() + " tables");
+                    });
+            runningCatalogSearch = search;
+            search.whenComplete((summary, ex) -> {
+                if (search != runningCatalogSearch) {
+                    return;
+                }
+                runningCatalogSearch = null;
+                Throwable cause = ex == null ? null : unwrap(ex);
+                if (cause instanceof CancellationException || QueryHandle.isCancellation(cause)) {
+                    return;
+                }
+                if (cause != null) {
+                    conectionStatus.setText("failed: " + cause.getMessage());
+                    cause.printStackTrace();
+                    return;
+                }
+                String stop = summary.isTimedOut() ? ", time budget reached"
+                        : summary.isRowLimitReached() ? ", row budget reached" : "";
+                conectionStatus.setText("found " + summary.getHitCount() + " rows in " + summary.getHits().size()
+                        + " of " + summary.getSearchedCount() + " tables" + stop);
+            });
+        });
+
+        //write the rows of the current search to a CSV or TSV file, clicking again while it runs cancels it
+        Button exportButton = CommonGUIBuilder.createButton("Export...", null);
+        exportButton.setOnAction(e -> {
+            if (runningExport != null) {
+                cancelExport();
+                exportButton.setText("Export...");
+                conectionStatus.setText("export cancelled");
+                return;
+            }
+            try {
+                if (!controller.isConnected()) {
+                    conectionStatus.setText("must connect first");
+                    return;
+                }
+            } catch (SQLException ex) {
+                conectionStatus.setText("failed: " + ex.getMessage());
+                ex.printStackTrace();
+                return;
+            }
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Export Rows");
+            chooser.setInitialFileName(properties.tableInUseProperty().get() + ".csv");
+            for (ExportFormat format : ExportFormat.values()) {
+                chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(format.name(),
+                        "*." + format.getExtension()));
+            }
+            File file = chooser.showSaveDialog(table.getScene().getWindow());
+            if (file == null) {
+                return;
+            }
+            QueryFuture<Long> export = controller.exportAsync(searchText.getText().trim(), file.toPath(),
+                    ExportFormat.forFileName(file.getName()),
+                    (rows, bytes) -> conectionStatus.setText("exported " + rows + " rows"));
+            runningExport = export;
+            exportButton.setText("Cancel Export");
+            export.whenComplete((rows, ex) -> {
+                if (export != runningExport) {
+                    return;
+                }
+                runningExport = null;
+                exportButton.setText("Export...");
+                Throwable cause = ex == null ? null : unwrap(ex);
+                if (cause instanceof CancellationException || QueryHandle.isCancellation(cause)) {
+                    return;
+                }
+                if (cause != null) {
+                    conectionStatus.setText("export failed: " + cause.getMessage());
+                    cause.printStackTrace();
+                    return;
+                }
+                conectionStatus.setText("exported " + rows + " rows to " + file.getName());
+            });
+        });
+
+        //selecting a table of the catalog search shows its hits
+        ListView<String> catalogList = CommonGUIBuilder.createListView(catalogHitTables, 200);
+        catalogList.setCellFactory(list -> new ListCell<String>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                ResultTable hits = empty || item == null ? null : catalogHits.get(item);
+                setText(hits == null ? null : item + " (" + hits.getRowCount() + " rows)");
+            }
+        });
+        catalogList.getSelectionModel().selectedItemProperty().addListener((value, oldValue, newValue) -> {
+            ResultTable hits = newValue == null ? null : catalogHits.get(newValue);
+            if (hits == null) {
+                return;
+            }
+            cancelRunningSearch();
+            tablesCombo.getSelectionModel().select(newValue);
+            try {
+                populateTable(hits, getEditBuffer());
+                conectionStatus.setText(newValue + ": " + hits.getRowCount() + " rows");
+            } catch (SQLException ex) {
+                conectionStatus.setText("failed: " + ex.getMessage());
+                ex.printStackTrace();
+            }
+        });
+
+        //TODO call setOnAction on searchText and use rule 3 to execute searchButton.fire().
+        searchText.setOnAction(e -> searchButton.fire());
+
+        //every key stroke cancels the query still running and restarts the delay, so only the term the user
+        //stopped at reaches the database
+        PauseTransition searchDelay = new PauseTransition(Duration.millis(searchDelayMillis));
+        searchDelay.setOnFinished(e -> searchButton.fire());
+        searchText.textProperty().addListener((value, oldValue, newValue) -> {
+            if (liveCheck.isSelected()) {
+                cancelRunningSearch();
+                searchDelay.playFromStart();
+            }
+        });
+
+        VBox vbox = new VBox();
+        vbox.setSpacing(3);
+        vbox.setPadding(new Insets(0, 5, 5, 5));
+        //TODO uncomment the line below to add all the Nodes to the VBox.
+        vbox.getChildren().addAll(connectButton, tablesCombo, refreshButton, searchText, modeCombo, pagedCheck,
+                liveCheck, searchButton, saveButton, discardButton, exportButton,
+                catalogButton, catalogList);
+
+        return vbox;
+    }
+
+    /**
+     * create a {@link ToolBar} that will represent the status bar of the application.
+     * 
+     * @return customized {@link ToolBar} as subclass of {@link Region}.
+     */
+    private Region createStatusBar() {
+        conectionStatus = new Label("Not Connected");
+        queryStatus = new Label();
+        Pane spacer = new Pane();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        return new ToolBar(conectionStatus, spacer, queryStatus);
+    }
+
+    private void populateTable(ResultTable result, EditBuffer edits) {
+        closePager();
+        table.setItems(new ResultTableItems(result));
+        createColumns(result.getColumnNames(), edits);
+    }
+
+    //show the rows of a result that may still be filling up, the first call sets up the table
+    private void showResult(ResultTable result, EditBuffer edits) {
+        if (table.getItems() instanceof ResultTableItems
+                && ((ResultTableItems) table.getItems()).getResult() == result) {
+            ((ResultTableItems) table.getItems()).refreshSize();
+        } else {
+            populateTable(result, edits);
+        }
+    }
+
+    //answer the search from the rows of an earlier search, false if the database has to be asked. every row
+    //containing the new term also contains the old one when the new term extends it, so it is already in memory
+    private boolean searchLocally(String term, EditBuffer edits) {
+        if (localIndex == null || !localIndexTable.equals(properties.tableInUseProperty().get())
+                || controller.getSearchMode() != SearchMode.LIKE
+                || !term.toLowerCase(Locale.ROOT).contains(localIndexTerm.toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        int[] rows = localIndex.search(term);
+        if (rows == null) {
+            return false;
+        }
+        closePager();
+        table.setItems(new ResultTableItems(localIndex.getResult(), rows));
+        createColumns(localIndex.getResult().getColumnNames(), edits);
+        conectionStatus.setText("found " + rows.length + " rows in memory");
+        return true;
+    }
+
+    //edit buffer of the table in use, created the first time the table is shown. null when the table has no primary
+    //key, its rows are shown read only
+    private EditBuffer getEditBuffer() throws SQLException {
+        String tableName = properties.tableInUseProperty().get();
+        EditBuffer buffer = editBuffers.get(tableName);
+        if (buffer == null && controller.isEditable()) {
+            buffer = controller.createEditBuffer();
+            editBuffers.put(tableName, buffer);
+        }
+        return buffer;
+    }
+
+    private int pendingEdits() {
+        int count = 0;
+        for (EditBuffer buffer : editBuffers.values()) {
+            count += buffer.size();
+        }
+        return count;
+    }
+
+
+    /**
+     * copy every row with a selected cell, in row order, with the selected columns in the order they are shown. only
+     * the rows and columns are gathered here, the text is built by a {@link CopyTask} on its own thread.
+     */
+    @SuppressWarnings("rawtypes")
+    private void copySelection() {
+        ObservableList<TablePosition> cells = table.getSelectionModel().getSelectedCells();
+        if (cells.isEmpty()) {
+            return;
+        }
+        if (runningCopy != null) {
+            runningCopy.cancel();
+        }
+        BitSet selectedRows = new BitSet();
+        Set<TableColumn> selectedColumns = new HashSet<>();
+        for (TablePosition cell : cells) {
+            selectedRows.set(cell.getRow());
+            selectedColumns.add(cell.getTableColumn());
+        }
+        List<TableColumn<ResultTable.Row, ?>> shown = table.getVisibleLeafColumns();
+        int[] columns = new int[selectedColumns.size()];
+        int count = 0;
+        for (TableColumn<ResultTable.Row, ?> column : shown) {
+            if (selectedColumns.contains(column)) {
+                columns[count++] = (Integer) column.getUserData();
+            }
+        }
+        ObservableList<ResultTable.Row> items = table.getItems();
+        int[] rows = selectedRows.get(0, items.size()).stream().toArray();
+        //the rows are read by the task, pages not in memory are read there and not on JavaFX thread
+        CopyTask.RowSource source;
+        if (items instanceof PagedTableItems) {
+            source = ((PagedTableItems) items).getPager()::readRow;
+        } else {
+            source = ((ResultTableItems) items)::readRow;
+        }
+        CopyTask copy = new CopyTask(rows, source, Arrays.copyOf(columns, count), shownEdits,
+                CopyTask.DEFAULT_MAX_CHARS);
+        runningCopy = copy;
+        copy.messageProperty().addListener((value, oldValue, newValue) -> conectionStatus.setText(newValue));
+        copy.setOnSucceeded(e -> {
+            if (runningCopy == copy) {
+                runningCopy = null;
+            }
+            ClipboardContent content = new ClipboardContent();
+            content.putString(copy.getValue());
+            Clipboard.getSystemClipboard().setContent(content);
+            if (copy.isTruncated()) {
+                conectionStatus.setText("copy limit reached, copied " + copy.getCopiedRows() + " of "
+                        + copy.getRowCount() + " rows");
+            } else {
+                conectionStatus.setText("copied " + copy.getCopiedRows() + " rows");
+            }
+        });
+        copy.setOnFailed(e -> {
+            if (runningCopy == copy) {
+                runningCopy = null;
+            }
+            conectionStatus.setText("copy failed: " + copy.getException().getMessage());
+            copy.getException().printStackTrace();
+        });
+        Thread thread = new Thread(copy, "clipboard-copy");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void cancelExport() {
+        if (runningExport != null) {
+            runningExport.cancel(true);
+            runningExport = null;
+        }
+    }
+
+    private void cancelCatalogSearch() {
+        if (runningCatalogSearch != null) {
+            runningCatalogSearch.cancel(true);
+            runningCatalogSearch = null;
+        }
+    }
+
+    private void cancelRunningSearch() {
+        if (runningSearch != null) {
+            runningSearch.cancel(true);
+            runningSearch = null;
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    //only the rows around the viewport are read, pages are loaded and prefetched in the background
+    private void populatePagedTable(EditBuffer edits) throws SQLException {
+        closePager();
+        PagedTableItems[] items = new PagedTableItems[1];
+        pager = controller.createPager(() -> Platform.runLater(() -> {
+            if (items[0] != null && table.getItems() == items[0]) {
+                items[0].refreshSize();
+                table.refresh();
+            }
+        }));
+        items[0] = new PagedTableItems(pager);
+        table.setItems(items[0]);
+        createColumns(controller.getColumnNames(), edits);
+    }
+
+    private void closePager() {
+        if (pager != null) {
+            pager.close();
+            pager = null;
+        }
+    }
+
+    private void createColumns(List<String> columnNames, EditBuffer edits) {
+        shownEdits = edits;
+        table.getColumns().clear();
+        //every row shown comes from the same select, so the key columns are looked up once and not for every cell
+        int[] keyIndexes = edits == null ? null : edits.getKeyIndexes(columnNames);
+        //this is where we add all the columns to the table.
+        //for each column name create a new TableColumn.
+        //each TableColumn needs to have a CellValueFactory.
+        //method data.getValue() return the row view for the cell, values are read straight from the result.
+        //the row is null while its page is still loading.
+        for (int i = 0; i < columnNames.size(); i++) {
+            String col = columnNames.get(i);
+            TableColumn<ResultTable.Row, Object> tc = new TableColumn<>(col);
+
+            int index = i;
+
+            //cells with a pending edit show the new value until it is saved or discarded
+            tc.setCellValueFactory((CellDataFeatures<ResultTable.Row, Object> data) -> new SimpleObjectProperty<>(
+                    data.getValue() == null ? null : edits == null ? data.getValue().getObject(index)
+                            : edits.getValue(data.getValue(), index, keyIndexes)));
+            //the copy task reads the values by column index, whatever order the columns are dragged into
+            tc.setUserData(index);
+
+            //call setCellFactory to make sure the cells become textField that we can edit.
+            tc.setCellFactory(TextFieldTableCell.forTableColumn(new StringConverter<Object>() {
+
+                @Override
+                public String toString(Object object) {
+                    return object == null? null : object.toString();
+                }
+
+                @Override
+                public Object fromString(String string) {
+                    return string;
+                }
+
+            }));
+
+            //without a primary key an edit could not be written to a single row
+            tc.setEditable(edits != null);
+            // bonus part: keep the edit when user edit the cell and hit enter, save writes all of them at once
+            tc.setOnEditCommit((CellEditEvent<ResultTable.Row, Object> event) -> {
+                if (event.getRowValue() == null) {
+                    return;
+                }
+                //the key values of the row make sure we update the right row by using
+                //the condition like "where key1 = ? and key2 = ?" in the query
+                List<Object> keyValues = edits.getKeyValues(event.getRowValue(), keyIndexes);
+                if (keyValues == null) {
+                    conectionStatus.setText("cannot edit, key columns " + edits.getKeyColumns() + " are not shown");
+                    table.refresh();
+                    return;
+                }
+                edits.put(keyValues, col, event.getNewValue());
+                conectionStatus.setText(pendingEdits() + " pending edits");
+            });
+            table.getColumns().add(tc);
+        }
+    }
+
+    /**
+     * main starting point of the application
+     * 
+     * @param args - arguments provided through command line, if any
+     */
+    public static void main(String[] args) {
+        // launch(args); method starts the javaFX application.
+        // some IDEs are capable of starting JavaFX without this method.
+        launch(args);
+    }
+}
@@ -0,0 +1,58 @@
+package dbreader;
+
+import java.util.Collections;
+
+import javafx.collections.ObservableListBase;
+import jdbc.KeysetPager;
+import jdbc.ResultTable;
+
+/**
+ * PagedTableItems class
+ * Items of the TableView when a table is browsed page by page. the TableView only asks for the rows in its viewport,
+ * so only those pages are read through the {@link KeysetPager}. rows whose page is still loading are null.
+ * 
+ * @author Juan Ni
+ *
+ */
+public class PagedTableItems extends ObservableListBase<ResultTable.Row> {
+    private final KeysetPager pager;
+    private int size;
+
+    public PagedTableItems(KeysetPager pager) {
+        this.pager = pager;
+        size = pager.getRowCount();
+    }
+
+    public KeysetPager getPager() {
+        return pager;
+    }
+
+    //must be called on JavaFX thread after the pager reports a change, tells the TableView if the row count changed
+    public void refreshSize() {
+        int newSize = pager.getRowCount();
+        if (newSize == size) {
+            return;
+        }
+        beginChange();
+        if (newSize > size) {
+            nextAdd(size, newSize);
+        } else {
+            nextRemove(newSize, Collections.nCopies(size - newSize, (ResultTable.Row) null));
+        }
+        size = newSize;
+        endChange();
+    }
+
+    @Override
+    public ResultTable.Row get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+        return pager.getRow(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,68 @@
+package dbreader;
+
+import javafx.collections.ObservableListBase;
+import jdbc.ResultTable;
+
+/**
+ * ResultTableItems class
+ * Read only list of rows used as the items of the TableView. the rows stay in the {@link ResultTable} and a light
+ * {@link ResultTable.Row} view is created only for the rows the TableView asks for. the result may still be filling
+ * up, {@link #refreshSize()} tells the TableView about the rows added since the last call. a list created with
+ * selected rows only shows those rows, for example the rows found by a {@link jdbc.RowIndex}.
+ * 
+ * @author Juan Ni
+ *
+ */
+public class ResultTableItems extends ObservableListBase<ResultTable.Row> {
+    private final ResultTable result;
+    private final int[] rows;
+    private int size;
+
+    public ResultTableItems(ResultTable result) {
+        this.result = result;
+        this.rows = null;
+        size = result.getRowCount();
+    }
+
+    public ResultTableItems(ResultTable result, int[] rows) {
+        this.result = result;
+        this.rows = rows;
+        size = rows.length;
+    }
+
+    public ResultTable getResult() {
+        return result;
+    }
+
+    //must be called on JavaFX thread
+    public void refreshSize() {
+        if (rows != null) {
+            return;
+        }
+        int newSize = result.getRowCount();
+        if (newSize > size) {
+            beginChange();
+            nextAdd(size, newSize);
+            size = newSize;
+            endChange();
+        }
+    }
+
+    @Override
+    public ResultTable.Row get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+        return result.row(rows == null ? index : rows[index]);
+    }
+
+    //the row at index without the size check, rows are never removed so it can be called from any thread
+    public ResultTable.Row readRow(int index) {
+        return result.row(rows == null ? index : rows[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -2,10 +2,8 @@ module dbreader {
 
 	opens dbreader to javafx.graphics;
 
-	requires java.desktop;
-	requires java.sql;
+	requires dbreader.core;
 	requires javafx.base;
 	requires transitive javafx.graphics;
 	requires transitive javafx.controls;
-	requires javafx.web;
 }
\ No newline at end of file